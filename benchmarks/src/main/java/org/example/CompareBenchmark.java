@@ -0,0 +1,80 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of ordering ids: a single compareTo, and sorting shuffled ids as records against sorting them packed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompareBenchmark {
+
+    @Param({"100000"})
+    private int count;
+
+    private UniqueId first;
+    private UniqueId second;
+    private UniqueId[] shuffled;
+    private long[] shuffledPacked;
+    private UniqueId[] ids;
+    private long[] packedIds;
+
+    @Setup
+    public void setup() {
+        var random = new Random(42);
+        shuffled = new UniqueId[count];
+        shuffledPacked = new long[2 * count];
+        for (int i = 0; i < count; i++) {
+            shuffled[i] = new UniqueId(random.nextInt(count / 10), random.nextInt(16), random.nextInt(1 << 16));
+            shuffledPacked[2 * i] = shuffled[i].mostSignificantBits();
+            shuffledPacked[2 * i + 1] = shuffled[i].leastSignificantBits();
+        }
+        first = new UniqueId(10, 20, 30);
+        second = new UniqueId(10, 20, 31);
+        ids = new UniqueId[count];
+        packedIds = new long[2 * count];
+    }
+
+    @Setup(Level.Invocation)
+    public void shuffle() {
+        System.arraycopy(shuffled, 0, ids, 0, count);
+        System.arraycopy(shuffledPacked, 0, packedIds, 0, 2 * count);
+    }
+
+    @Benchmark
+    public int compareTo() {
+        return first.compareTo(second);
+    }
+
+    @Benchmark
+    public UniqueId[] sortRecords() {
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    @Benchmark
+    public long[] sortPacked() {
+        PackedIds.sort(packedIds, 0, count);
+        return packedIds;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of id generation, single-threaded and with all cores sharing one generator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenerateBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+
+    private UUIDGenerator generator;
+    private StripedUUIDGenerator stripedGenerator;
+
+    @Setup
+    public void setup() {
+        generator = UUIDGenerator.builder().machineAddress(42L).build();
+        stripedGenerator = StripedUUIDGenerator.builder().machineAddress(42L).build();
+    }
+
+    @State(Scope.Thread)
+    public static class Batch {
+        final long[] packedIds = new long[2 * BATCH_SIZE];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UniqueId generate() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public UniqueId generateShared() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public UniqueId generateStriped() {
+        return stripedGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long[] generateBatch(Batch batch) {
+        generator.generate(batch.packedIds, 0, BATCH_SIZE);
+        return batch.packedIds;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long[] generateBatchShared(Batch batch) {
+        generator.generate(batch.packedIds, 0, BATCH_SIZE);
+        return batch.packedIds;
+    }
+}
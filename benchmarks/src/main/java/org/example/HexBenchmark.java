@@ -0,0 +1,96 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the canonical hex form: writing it, against the UUID.toString baseline, and parsing it, against the
+ * UUID.fromString baseline. The baselines include converting between the id and its packed bits, as callers holding
+ * a UniqueId would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HexBenchmark {
+
+    private UniqueId id;
+    private String text;
+    private ByteBuffer textBytes;
+    private final byte[] dest = new byte[HexCodec.ENCODED_LENGTH];
+    private final ByteBuffer directDest = ByteBuffer.allocateDirect(HexCodec.ENCODED_LENGTH);
+    private final long[] packed = new long[2];
+
+    @Setup
+    public void setup() {
+        id = UUIDGenerator.builder().machineAddress(0x0123456789ABL).build().generate();
+        text = HexCodec.toString(id);
+        textBytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public String toStringUuidBaseline() {
+        return new UUID(id.mostSignificantBits(), id.leastSignificantBits()).toString();
+    }
+
+    @Benchmark
+    public byte[] writeToBytesUuidBaseline() {
+        return new UUID(id.mostSignificantBits(), id.leastSignificantBits()).toString()
+                .getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public String toStringHex() {
+        return HexCodec.toString(id);
+    }
+
+    @Benchmark
+    public int writeToBytes() {
+        return HexCodec.write(id, dest, 0);
+    }
+
+    @Benchmark
+    public ByteBuffer writeToDirectBuffer() {
+        HexCodec.write(id, directDest.clear());
+        return directDest;
+    }
+
+    @Benchmark
+    public UniqueId parseUuidBaseline() {
+        var uuid = UUID.fromString(text);
+        return UniqueId.fromBits(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    @Benchmark
+    public UniqueId parse() {
+        return HexCodec.parse(text);
+    }
+
+    @Benchmark
+    public long[] parsePacked() {
+        HexCodec.parse(text, packed, 0);
+        return packed;
+    }
+
+    @Benchmark
+    public UniqueId parseBytes() {
+        textBytes.rewind();
+        return HexCodec.parse(textBytes);
+    }
+}
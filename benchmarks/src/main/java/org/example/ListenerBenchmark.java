@@ -0,0 +1,91 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of an attached listener on generate(): none, a synchronous listener publishing toString() as in Example,
+ * and the asynchronous and batching adapters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListenerBenchmark {
+
+    private UUIDGenerator withoutListener;
+    private UUIDGenerator withSyncListener;
+    private UUIDGenerator withAsyncListener;
+    private UUIDGenerator withBatchingListener;
+    private AsyncListener asyncListener;
+    private BatchingListener batchingListener;
+
+    @Setup
+    public void setup() {
+        withoutListener = UUIDGenerator.builder().machineAddress(42L).build();
+        withSyncListener = UUIDGenerator.builder().machineAddress(42L).listener(ListenerBenchmark::publish).build();
+        asyncListener = AsyncListener.builder().delegate(ListenerBenchmark::publish)
+                .backpressurePolicy(AsyncListener.BackpressurePolicy.DROP_NEWEST).build();
+        withAsyncListener = UUIDGenerator.builder().machineAddress(42L).listener(asyncListener).build();
+        batchingListener = BatchingListener.builder().delegate((packedIds, count) -> Blackhole.consumeCPU(count))
+                .linger(Duration.ofMillis(10)).build();
+        withBatchingListener = UUIDGenerator.builder().machineAddress(42L).listener(batchingListener).build();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        asyncListener.close();
+        batchingListener.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UniqueId noListener() {
+        return withoutListener.generate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UniqueId syncListener() {
+        return withSyncListener.generate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UniqueId asyncListener() {
+        return withAsyncListener.generate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UniqueId batchingListener() {
+        return withBatchingListener.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public UniqueId asyncListenerShared() {
+        return withAsyncListener.generate();
+    }
+
+    private static void publish(UniqueId uniqueId) {
+        Blackhole.consumeCPU(uniqueId.toString().length());
+    }
+}
@@ -0,0 +1,81 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the dashed decimal form: writing it, against the String.format baseline, and parsing it, against the
+ * String.split baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringBenchmark {
+
+    private UniqueId id;
+    private String text;
+    private ByteBuffer textBytes;
+    private final byte[] dest = new byte[64];
+    private final StringBuilder builder = new StringBuilder(64);
+
+    @Setup
+    public void setup() {
+        id = UUIDGenerator.builder().machineAddress(0x0123456789ABL).build().generate();
+        text = id.toString();
+        textBytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public String formatBaseline() {
+        return String.format("%d-%d-%d", id.hundredNanos(), id.machineAddress(), id.sequenceNumber());
+    }
+
+    @Benchmark
+    public String toStringDecimal() {
+        return id.toString();
+    }
+
+    @Benchmark
+    public int writeToBytes() {
+        return id.writeTo(dest, 0);
+    }
+
+    @Benchmark
+    public StringBuilder appendTo() {
+        builder.setLength(0);
+        return id.appendTo(builder);
+    }
+
+    @Benchmark
+    public UniqueId parseSplitBaseline() {
+        var fields = text.split("-");
+        return new UniqueId(Long.parseLong(fields[0]), Long.parseLong(fields[1]), Integer.parseInt(fields[2]));
+    }
+
+    @Benchmark
+    public UniqueId parse() {
+        return UniqueId.parse(text);
+    }
+
+    @Benchmark
+    public UniqueId parseBytes() {
+        textBytes.rewind();
+        return UniqueId.parse(textBytes);
+    }
+}
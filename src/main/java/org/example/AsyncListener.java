@@ -0,0 +1,177 @@
+package org.example;
+
+import lombok.Builder;
+import lombok.NonNull;
+import org.example.UUIDGenerator.Listener;
+import org.example.UUIDGenerator.UniqueId;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Listener} which moves a delegate listener off the critical path of {@link UUIDGenerator#generate()}.
+ * <p>
+ * Ids are handed to a bounded lock-free ring buffer, and a dedicated consumer thread invokes the delegate, in the
+ * order in which ids were enqueued. When the buffer is full, the {@link BackpressurePolicy} decides whether the
+ * generating thread waits or an id is dropped; dropped ids are counted in {@link #dropped()}.
+ * <p>
+ * The consumer thread is created by the given ThreadFactory, so it may be a platform thread (the default, a daemon
+ * thread) or a virtual thread. {@link #close()} stops accepting ids, and waits for the consumer to deliver every
+ * queued id.
+ */
+public final class AsyncListener implements Listener, AutoCloseable {
+
+    /**
+     * What to do with a new id when the buffer is full.
+     */
+    enum BackpressurePolicy {
+        /**
+         * Wait for the consumer to make room, so no id is dropped but generate() may stall on a slow delegate.
+         */
+        BLOCK,
+        /**
+         * Drop the new id.
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the oldest queued id to make room for the new id.
+         */
+        DROP_OLDEST
+    }
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int SPINS_BEFORE_PARKING = 100;
+    private static final long MAX_BLOCKED_PARK_NANOS = 1_000_000;
+
+    private final Listener delegate;
+    private final BackpressurePolicy backpressurePolicy;
+    private final BoundedRingBuffer<UniqueId> buffer;
+    private final Thread consumer;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean consumerParked;
+    private volatile boolean closed;
+
+    /**
+     * @param delegate           The listener invoked on the consumer thread.
+     * @param capacity           Size of the buffer, rounded up to a power of two. Defaults to 8192.
+     * @param backpressurePolicy Defaults to {@link BackpressurePolicy#BLOCK}.
+     * @param threadFactory      Creates the consumer thread. Defaults to a daemon platform thread.
+     */
+    @Builder
+    private AsyncListener(@NonNull Listener delegate, Integer capacity, BackpressurePolicy backpressurePolicy,
+                          ThreadFactory threadFactory) {
+        this.delegate = delegate;
+        this.backpressurePolicy = backpressurePolicy != null ? backpressurePolicy : BackpressurePolicy.BLOCK;
+        this.buffer = new BoundedRingBuffer<>(capacity != null ? capacity : DEFAULT_CAPACITY);
+        this.consumer = threadFactory != null ? threadFactory.newThread(this::consume) : defaultThread();
+        this.consumer.start();
+    }
+
+    @Override
+    public void uniqueIdGenerated(UniqueId uniqueId) {
+        if (closed) {
+            dropped.increment();
+            return;
+        }
+        switch (backpressurePolicy) {
+            case BLOCK -> {
+                long parkNanos = 1;
+                for (int spins = 0; !buffer.offer(uniqueId); spins++) {
+                    if (closed) {
+                        dropped.increment();
+                        return;
+                    }
+                    if (spins < SPINS_BEFORE_PARKING) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(parkNanos);
+                        parkNanos = Math.min(2 * parkNanos, MAX_BLOCKED_PARK_NANOS);
+                    }
+                }
+            }
+            case DROP_NEWEST -> {
+                if (!buffer.offer(uniqueId)) {
+                    dropped.increment();
+                    return;
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!buffer.offer(uniqueId)) {
+                    if (buffer.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+            }
+        }
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * @return The number of ids which were not delivered to the delegate because the buffer was full or the listener
+     * was closed.
+     */
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return The number of ids for which the delegate threw an exception.
+     */
+    long failed() {
+        return failed.sum();
+    }
+
+    /**
+     * Stops accepting ids and waits for every queued id to be delivered. Ids generated concurrently with close may be
+     * dropped.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        LockSupport.unpark(consumer);
+        consumer.join();
+        while (buffer.poll() != null) {
+            dropped.increment();
+        }
+    }
+
+    private void consume() {
+        while (true) {
+            var uniqueId = buffer.poll();
+            if (uniqueId != null) {
+                deliver(uniqueId);
+                continue;
+            }
+            if (closed) {
+                // Producers which saw closed == false may still be completing their offers.
+                while ((uniqueId = buffer.poll()) != null) {
+                    deliver(uniqueId);
+                }
+                return;
+            }
+            consumerParked = true;
+            if (buffer.isEmpty() && !closed) {
+                LockSupport.park(this);
+            }
+            consumerParked = false;
+        }
+    }
+
+    private void deliver(UniqueId uniqueId) {
+        try {
+            delegate.uniqueIdGenerated(uniqueId);
+        } catch (RuntimeException e) {
+            failed.increment();
+        }
+    }
+
+    private Thread defaultThread() {
+        var thread = new Thread(this::consume, "uuid-generator-async-listener");
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,575 @@
+package org.example;
+
+import lombok.Builder;
+import lombok.NonNull;
+import org.example.UUIDGenerator.Listener;
+import org.example.UUIDGenerator.UniqueId;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An append-only log of generated ids in memory-mapped segment files, for local audit retention. Plugs in as a
+ * {@link Listener}, and appends each id as a fixed-width record without allocating.
+ * <p>
+ * Each segment file starts with a header, followed by a fixed number of 24-byte little-endian records: the two longs
+ * of the id's {@link PackedIds} encoding, and a checksum of both. When a segment is full it is flushed to disk and
+ * the next one is created, named after the index of its first record so that segments sort in append order.
+ * <p>
+ * Records are written straight to the page cache, so they survive the process crashing at any point. They only
+ * survive the host crashing once {@link #flush()} (or rolling to a new segment, or {@link #close()}) has forced them
+ * to disk. On opening, the last segment is scanned for the first record with an invalid checksum, i.e., one which was
+ * torn or never written, and the store is truncated there. New segments are forced to disk with their header before
+ * any record is appended to them, and a last segment whose header is nevertheless short or zeroed is treated as
+ * empty. Segments of another format version are rejected rather than recovered.
+ * <p>
+ * Each segment ends with a sparse time index: the minimum and maximum hundred nanos of every block of records,
+ * maintained as records are appended. Ids are appended roughly, but not strictly, in time order (e.g., when several
+ * threads generate concurrently), so {@link #range} and {@link #indexOf} binary search the index for the blocks which
+ * may hold the requested time range, and only scan those.
+ * <p>
+ * Replay and queries read records directly from the mapped files, without copying them onto the heap, and may run
+ * concurrently with appends. Appends are serialized.
+ */
+public final class AuditStore implements Listener, AutoCloseable {
+
+    private static final int MAGIC = 0x55494453;
+    private static final int VERSION = 2;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 24;
+    private static final int BLOCK_ENTRY_SIZE = 16;
+    private static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+    private static final int DEFAULT_BLOCK_RECORDS = 512;
+    private static final String SEGMENT_SUFFIX = ".ids";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final int blockRecords;
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment tail;
+    private long size;
+    private boolean closed;
+
+    /**
+     * @param directory      Holds the segment files, and is created if absent. Existing segments are reopened and
+     *                       appended to.
+     * @param segmentRecords Number of records per new segment. Defaults to 2^20, i.e., 24MiB segments. Segments,
+     *                       including their time index, must be shorter than 2GiB.
+     * @param blockRecords   Number of records per block of the time index in new segments. Smaller blocks make time
+     *                       queries scan fewer records, at 16 bytes per block. Defaults to 512.
+     * @throws IllegalStateException if an existing segment is from another version of the format, or the segments
+     *                               are not contiguous.
+     * @throws UncheckedIOException  if the segments cannot be read or created.
+     */
+    @Builder
+    private AuditStore(@NonNull Path directory, Integer segmentRecords, Integer blockRecords) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords != null ? segmentRecords : DEFAULT_SEGMENT_RECORDS;
+        if (this.segmentRecords < 1) {
+            throw new IllegalArgumentException("segmentRecords must be positive: " + segmentRecords);
+        }
+        this.blockRecords = blockRecords != null ? blockRecords : DEFAULT_BLOCK_RECORDS;
+        if (this.blockRecords < 1) {
+            throw new IllegalArgumentException("blockRecords must be positive: " + blockRecords);
+        }
+        // Segments are mapped into a single buffer, and positioned with int offsets.
+        if (Segment.length(this.segmentRecords, this.blockRecords) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segments of " + this.segmentRecords + " records in blocks of "
+                    + this.blockRecords + " would be " + Segment.length(this.segmentRecords, this.blockRecords)
+                    + " bytes long, more than " + Integer.MAX_VALUE);
+        }
+        try {
+            Files.createDirectories(directory);
+            List<Path> paths;
+            try (var files = Files.list(directory)) {
+                paths = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+            }
+            for (int i = 0; i < paths.size(); i++) {
+                var path = paths.get(i);
+                var segment = Segment.open(path);
+                if (segment == null) {
+                    if (i < paths.size() - 1) {
+                        throw new IllegalStateException("Segment " + path + " has a short or zeroed header");
+                    }
+                    // The newest segment was being created when the host crashed, so none of its records were forced
+                    // to disk. It is recreated on the next append.
+                    Files.delete(path);
+                    break;
+                }
+                if (segment.baseIndex != size) {
+                    throw new IllegalStateException("Segment " + path + " starts at record " + segment.baseIndex
+                            + ", expected " + size);
+                }
+                segments.add(segment);
+                // Segments are only rolled when full, so only the last one can have a torn or unwritten tail.
+                segment.count = i < paths.size() - 1 ? segment.capacity : segment.recover();
+                size += segment.count;
+            }
+            tail = segments.isEmpty() ? roll() : segments.get(segments.size() - 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit store in " + directory, e);
+        }
+    }
+
+    /**
+     * @return A store in the given directory with default settings for all other parameters.
+     */
+    public static AuditStore open(Path directory) {
+        return builder().directory(directory).build();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id cannot be packed.
+     * @throws IllegalStateException    if the store is closed.
+     */
+    @Override
+    public void uniqueIdGenerated(UniqueId uniqueId) {
+        append(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits());
+    }
+
+    @Override
+    public synchronized void uniqueIdsGenerated(long[] packedIds, int offset, int count) {
+        Objects.checkFromIndexSize(offset, 2L * count, packedIds.length);
+        for (int i = 0, j = offset; i < count; i++, j += 2) {
+            append(packedIds[j], packedIds[j + 1]);
+        }
+    }
+
+    /**
+     * Appends a packed id.
+     *
+     * @throws IllegalStateException if the store is closed.
+     * @throws UncheckedIOException  if a new segment cannot be created.
+     */
+    synchronized void append(long mostSignificantBits, long leastSignificantBits) {
+        if (closed) {
+            throw new IllegalStateException("Audit store is closed");
+        }
+        if (tail.count == tail.capacity) {
+            tail.buffer.force();
+            try {
+                tail = roll();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create segment in " + directory, e);
+            }
+        }
+        tail.write(tail.count++, mostSignificantBits, leastSignificantBits);
+        size++;
+    }
+
+    /**
+     * @return The number of ids in the store.
+     */
+    synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Passes every id in the store to the consumer, in append order.
+     */
+    void replay(PackedIds.Consumer consumer) {
+        replay(0, size(), consumer);
+    }
+
+    /**
+     * Passes the ids with indices from (inclusive) to to (exclusive) to the consumer, in append order, reading them
+     * straight from the mapped segments.
+     *
+     * @throws IndexOutOfBoundsException if the range is not within the store.
+     */
+    void replay(long from, long to, PackedIds.Consumer consumer) {
+        List<Segment> snapshot;
+        synchronized (this) {
+            Objects.checkFromToIndex(from, to, size);
+            snapshot = List.copyOf(segments);
+        }
+        for (var segment : snapshot) {
+            var start = Math.max(from, segment.baseIndex);
+            var end = Math.min(to, segment.baseIndex + segment.capacity);
+            for (var index = start; index < end; index++) {
+                var position = Segment.position((int) (index - segment.baseIndex));
+                consumer.accept(segment.buffer.getLong(position), segment.buffer.getLong(position + 8));
+            }
+        }
+    }
+
+    /**
+     * Passes the ids whose hundred nanos are from fromHundredNanos (inclusive) to toHundredNanos (exclusive) to the
+     * consumer, in append order, only scanning the blocks of records whose time range overlaps the query.
+     */
+    void range(long fromHundredNanos, long toHundredNanos, PackedIds.Consumer consumer) {
+        if (fromHundredNanos < toHundredNanos) {
+            scan(fromHundredNanos, toHundredNanos - 1, (index, mostSignificantBits, leastSignificantBits) -> {
+                consumer.accept(mostSignificantBits, leastSignificantBits);
+                return true;
+            });
+        }
+    }
+
+    /**
+     * @return The index of the first record of the packed id in the store, or -1 if it is absent.
+     */
+    long indexOf(long mostSignificantBits, long leastSignificantBits) {
+        var found = new long[]{-1};
+        var hundredNanos = PackedIds.hundredNanos(mostSignificantBits);
+        scan(hundredNanos, hundredNanos, (index, msb, lsb) -> {
+            if (msb == mostSignificantBits && lsb == leastSignificantBits) {
+                found[0] = index;
+                return false;
+            }
+            return true;
+        });
+        return found[0];
+    }
+
+    boolean contains(UniqueId uniqueId) {
+        return PackedIds.isPackable(uniqueId.machineAddress(), uniqueId.sequenceNumber())
+                && indexOf(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits()) >= 0;
+    }
+
+    private interface RecordVisitor {
+        /**
+         * @return Whether to continue scanning.
+         */
+        boolean visit(long index, long mostSignificantBits, long leastSignificantBits);
+    }
+
+    /**
+     * Visits the records with hundred nanos from fromHundredNanos to toHundredNanos, both inclusive.
+     */
+    private void scan(long fromHundredNanos, long toHundredNanos, RecordVisitor visitor) {
+        List<Segment> snapshot;
+        Segment last;
+        int lastCount;
+        synchronized (this) {
+            snapshot = List.copyOf(segments);
+            last = tail;
+            lastCount = tail.count;
+        }
+        for (var segment : snapshot) {
+            var count = segment == last ? lastCount : segment.capacity;
+            var blocks = Segment.blocks(count, segment.blockRecords);
+            // The summary may cover more blocks than count, whose suffix minima only make the end bound conservative.
+            var summary = segment.summary(count);
+            var summarized = Math.min(summary.blocks(), blocks);
+            var endBlock = Math.min(summary.firstBlockPast(toHundredNanos), summarized);
+            for (int block = summary.firstBlockReaching(fromHundredNanos); block < endBlock; block++) {
+                if (!scanBlock(segment, block, count, fromHundredNanos, toHundredNanos, visitor)) {
+                    return;
+                }
+            }
+            // The block still being written, if any, is not summarized.
+            for (int block = summarized; block < blocks; block++) {
+                if (!scanBlock(segment, block, count, fromHundredNanos, toHundredNanos, visitor)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits the records of the block among the first count records of the segment with hundred nanos from
+     * fromHundredNanos to toHundredNanos, both inclusive, unless its index entry rules them all out.
+     *
+     * @return Whether to continue scanning.
+     */
+    private static boolean scanBlock(Segment segment, int block, int count, long fromHundredNanos, long toHundredNanos,
+                                     RecordVisitor visitor) {
+        if (segment.blockMin(block) > toHundredNanos || segment.blockMax(block) < fromHundredNanos) {
+            return true;
+        }
+        var end = Math.min(count, (block + 1) * segment.blockRecords);
+        for (int record = block * segment.blockRecords; record < end; record++) {
+            var position = Segment.position(record);
+            var msb = segment.buffer.getLong(position);
+            var hundredNanos = PackedIds.hundredNanos(msb);
+            if (hundredNanos >= fromHundredNanos && hundredNanos <= toHundredNanos
+                    && !visitor.visit(segment.baseIndex + record, msb, segment.buffer.getLong(position + 8))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Forces all appended ids to disk.
+     */
+    synchronized void flush() {
+        tail.buffer.force();
+    }
+
+    /**
+     * Flushes the store. Appends fail afterwards, while replay still works.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            flush();
+            closed = true;
+        }
+    }
+
+    private Segment roll() throws IOException {
+        var path = directory.resolve(String.format("%020d%s", size, SEGMENT_SUFFIX));
+        var segment = Segment.create(path, size, segmentRecords, blockRecords);
+        try (var channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened or forced on every platform (e.g., Windows), which then persists the
+            // entry with the file's own metadata.
+        }
+        segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * A mapped segment file: the header, the records, then the block index, which holds the minimum and maximum
+     * hundred nanos of each block of records. The buffer is only read with absolute gets, so it can be shared between
+     * threads.
+     */
+    static final class Segment {
+        final long baseIndex;
+        final int capacity;
+        final int blockRecords;
+        final MappedByteBuffer buffer;
+        /**
+         * Number of records written, only accessed while holding the store's monitor.
+         */
+        int count;
+        /**
+         * Summary of the block index over the blocks which were full when it was built, whose entries can no longer
+         * change. Rebuilt by queries once more blocks have filled, so at most once per block of appends.
+         */
+        private volatile BlockSummary summary;
+
+        private Segment(long baseIndex, int capacity, int blockRecords, MappedByteBuffer buffer) {
+            this.baseIndex = baseIndex;
+            this.capacity = capacity;
+            this.blockRecords = blockRecords;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path path, long baseIndex, int capacity, int blockRecords) throws IOException {
+            try (var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                var buffer = map(channel, length(capacity, blockRecords));
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, RECORD_SIZE);
+                buffer.putInt(12, blockRecords);
+                buffer.putLong(16, baseIndex);
+                buffer.putInt(24, capacity);
+                // Persist the header and the file's length before any record can be appended after it.
+                buffer.force();
+                channel.force(true);
+                return new Segment(baseIndex, capacity, blockRecords, buffer);
+            }
+        }
+
+        /**
+         * @return The segment, or null if its header is short or zeroed because the host crashed while it was being
+         * created.
+         * @throws IllegalStateException if the header is not a segment header, or is from another version of the
+         *                               format, or does not match the file's length.
+         */
+        static Segment open(Path path) throws IOException {
+            try (var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                var length = channel.size();
+                var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                if (length < HEADER_SIZE || channel.read(header, 0) < HEADER_SIZE || header.getInt(0) == 0) {
+                    return null;
+                }
+                if (header.getInt(0) != MAGIC) {
+                    throw new IllegalStateException("Segment " + path + " is not an audit store segment");
+                }
+                if (header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE) {
+                    throw new IllegalStateException("Segment " + path + " has version " + header.getInt(4)
+                            + " and record size " + header.getInt(8) + ", expected " + VERSION + " and "
+                            + RECORD_SIZE);
+                }
+                var blockRecords = header.getInt(12);
+                var capacity = header.getInt(24);
+                if (blockRecords < 1 || capacity < 1 || length(capacity, blockRecords) != length
+                        || length > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Segment " + path + " is " + length + " bytes long, which does"
+                            + " not match its header");
+                }
+                return new Segment(header.getLong(16), capacity, blockRecords, map(channel, length));
+            }
+        }
+
+        static long length(int capacity, int blockRecords) {
+            return HEADER_SIZE + (long) RECORD_SIZE * capacity + (long) BLOCK_ENTRY_SIZE * blocks(capacity,
+                    blockRecords);
+        }
+
+        static int blocks(int records, int blockRecords) {
+            return (int) ((records + (long) blockRecords - 1) / blockRecords);
+        }
+
+        private static MappedByteBuffer map(FileChannel channel, long length) throws IOException {
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+
+        static int position(int record) {
+            return HEADER_SIZE + record * RECORD_SIZE;
+        }
+
+        private int blockPosition(int block) {
+            return HEADER_SIZE + capacity * RECORD_SIZE + block * BLOCK_ENTRY_SIZE;
+        }
+
+        long blockMin(int block) {
+            return buffer.getLong(blockPosition(block));
+        }
+
+        long blockMax(int block) {
+            return buffer.getLong(blockPosition(block) + 8);
+        }
+
+        void write(int record, long mostSignificantBits, long leastSignificantBits) {
+            var position = position(record);
+            buffer.putLong(position, mostSignificantBits);
+            buffer.putLong(position + 8, leastSignificantBits);
+            buffer.putLong(position + 16, checksum(mostSignificantBits, leastSignificantBits));
+            index(record, PackedIds.hundredNanos(mostSignificantBits));
+        }
+
+        /**
+         * Widens the block entry of the record to include its hundred nanos, or resets it for a block's first record.
+         */
+        private void index(int record, long hundredNanos) {
+            var position = blockPosition(record / blockRecords);
+            if (record % blockRecords == 0) {
+                buffer.putLong(position, hundredNanos);
+                buffer.putLong(position + 8, hundredNanos);
+            } else {
+                if (hundredNanos < buffer.getLong(position)) {
+                    buffer.putLong(position, hundredNanos);
+                }
+                if (hundredNanos > buffer.getLong(position + 8)) {
+                    buffer.putLong(position + 8, hundredNanos);
+                }
+            }
+        }
+
+        /**
+         * @return The number of leading records with valid checksums, after zeroing every record after them, so that
+         * stale records beyond a torn one are not revived once later appends overwrite the torn one, and rebuilding
+         * the block index, whose tail may have been torn as well.
+         */
+        int recover() {
+            var valid = 0;
+            while (valid < capacity && isValid(valid)) {
+                index(valid, PackedIds.hundredNanos(buffer.getLong(position(valid))));
+                valid++;
+            }
+            for (int record = valid; record < capacity; record++) {
+                var position = position(record);
+                if (buffer.getLong(position + 16) != 0 || buffer.getLong(position) != 0
+                        || buffer.getLong(position + 8) != 0) {
+                    buffer.putLong(position, 0);
+                    buffer.putLong(position + 8, 0);
+                    buffer.putLong(position + 16, 0);
+                }
+            }
+            buffer.force();
+            return valid;
+        }
+
+        private boolean isValid(int record) {
+            var position = position(record);
+            return buffer.getLong(position + 16) == checksum(buffer.getLong(position), buffer.getLong(position + 8));
+        }
+
+        /**
+         * @param count Number of records written, which must be the capacity unless this is the tail segment.
+         * @return A summary of at least the full blocks among the first count records.
+         */
+        BlockSummary summary(int count) {
+            var full = count == capacity ? blocks(capacity, blockRecords) : count / blockRecords;
+            var summary = this.summary;
+            if (summary == null || summary.blocks() < full) {
+                this.summary = summary = BlockSummary.of(this, full);
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * The running maximum of the block maxima from the first block, and running minimum of the block minima from the
+     * last block. Both are non-decreasing even when records are not in time order, so the blocks which may hold a
+     * time range are found by binary search, and lie between the first block whose prefix maximum reaches the start
+     * of the range and the first block whose suffix minimum is past its end.
+     */
+    record BlockSummary(long[] prefixMax, long[] suffixMin) {
+
+        static BlockSummary of(Segment segment, int blocks) {
+            var prefixMax = new long[blocks];
+            var suffixMin = new long[blocks];
+            for (int block = 0; block < blocks; block++) {
+                prefixMax[block] = Math.max(segment.blockMax(block), block > 0 ? prefixMax[block - 1]
+                        : Long.MIN_VALUE);
+            }
+            for (int block = blocks - 1; block >= 0; block--) {
+                suffixMin[block] = Math.min(segment.blockMin(block), block < blocks - 1 ? suffixMin[block + 1]
+                        : Long.MAX_VALUE);
+            }
+            return new BlockSummary(prefixMax, suffixMin);
+        }
+
+        int blocks() {
+            return prefixMax.length;
+        }
+
+        /**
+         * @return The first block whose prefix maximum is at least the given hundred nanos.
+         */
+        int firstBlockReaching(long hundredNanos) {
+            return lowerBound(prefixMax, hundredNanos);
+        }
+
+        /**
+         * @return The first block whose suffix minimum is past the given hundred nanos.
+         */
+        int firstBlockPast(long hundredNanos) {
+            return hundredNanos == Long.MAX_VALUE ? suffixMin.length : lowerBound(suffixMin, hundredNanos + 1);
+        }
+
+        private static int lowerBound(long[] sorted, long key) {
+            var lo = 0;
+            var hi = sorted.length;
+            while (lo < hi) {
+                var mid = (lo + hi) >>> 1;
+                if (sorted[mid] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * A 64-bit mix of both halves of the id, which is never zero for the all-zero id, so that unwritten records are
+     * invalid.
+     */
+    static long checksum(long mostSignificantBits, long leastSignificantBits) {
+        var h = (mostSignificantBits ^ 0x5851F42D4C957F2DL) * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 31) ^ leastSignificantBits) * 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 29);
+    }
+}
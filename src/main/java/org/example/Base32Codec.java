@@ -0,0 +1,198 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Writes and parses a fixed-width, 26-character Crockford base32 form of the packed 128-bit encoding of a
+ * {@link UniqueId} (see {@link PackedIds}), e.g., "7ZZZZZZZZZZZZZZZZZZZZZZZZZ", whose string order matches
+ * {@link UniqueId#compareTo}.
+ * <p>
+ * The sign bit of each half of the packed id is flipped, so that signed order becomes unsigned order, and the 128
+ * bits are written most significant first, 5 bits per character, after two zero padding bits. The alphabet
+ * "0123456789ABCDEFGHJKMNPQRSTVWXYZ" is in ASCII order, so comparing the strings (or their bytes) compares the ids.
+ * The form has the same shape as a ULID: the first character is at most '7'.
+ * <p>
+ * Characters are written from and parsed with lookup tables. Parsing is case-insensitive and accepts Crockford's
+ * aliases ('I' and 'L' for '1', 'O' for '0').
+ */
+final class Base32Codec {
+
+    static final int ENCODED_LENGTH = 26;
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.ISO_8859_1);
+    /**
+     * The value of each ASCII character, or -1 if it is not a base32 digit.
+     */
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
+            VALUES[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+        for (var alias : "IiLl".toCharArray()) {
+            VALUES[alias] = 1;
+        }
+        VALUES['O'] = 0;
+        VALUES['o'] = 0;
+    }
+
+    private Base32Codec() {
+    }
+
+    static String toString(UniqueId uniqueId) {
+        var bytes = new byte[ENCODED_LENGTH];
+        write(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits(), bytes, 0);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id cannot be packed.
+     */
+    static int write(UniqueId uniqueId, byte[] dest, int offset) {
+        return write(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits(), dest, offset);
+    }
+
+    /**
+     * Writes the form of a packed id.
+     *
+     * @return The index in dest following the last character written.
+     * @throws IndexOutOfBoundsException if the form does not fit in dest at offset.
+     */
+    static int write(long mostSignificantBits, long leastSignificantBits, byte[] dest, int offset) {
+        Objects.checkFromIndexSize(offset, ENCODED_LENGTH, dest.length);
+        var hi = mostSignificantBits ^ Long.MIN_VALUE;
+        var lo = leastSignificantBits ^ Long.MIN_VALUE;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            dest[offset + i] = ALPHABET[digit(hi, lo, i)];
+        }
+        return offset + ENCODED_LENGTH;
+    }
+
+    /**
+     * Writes the form at the buffer's position, advancing it.
+     *
+     * @throws IllegalArgumentException if the id cannot be packed.
+     * @throws BufferOverflowException  if the form does not fit in the buffer's remaining bytes.
+     */
+    static void write(UniqueId uniqueId, ByteBuffer dest) {
+        if (dest.remaining() < ENCODED_LENGTH) {
+            throw new BufferOverflowException();
+        }
+        var msb = uniqueId.mostSignificantBits();
+        var lsb = uniqueId.leastSignificantBits();
+        if (dest.hasArray()) {
+            write(msb, lsb, dest.array(), dest.arrayOffset() + dest.position());
+        } else {
+            var hi = msb ^ Long.MIN_VALUE;
+            var lo = lsb ^ Long.MIN_VALUE;
+            for (int i = 0; i < ENCODED_LENGTH; i++) {
+                dest.put(dest.position() + i, ALPHABET[digit(hi, lo, i)]);
+            }
+        }
+        dest.position(dest.position() + ENCODED_LENGTH);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id cannot be packed.
+     */
+    static StringBuilder append(UniqueId uniqueId, StringBuilder dest) {
+        var hi = uniqueId.mostSignificantBits() ^ Long.MIN_VALUE;
+        var lo = uniqueId.leastSignificantBits() ^ Long.MIN_VALUE;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            dest.append((char) ALPHABET[digit(hi, lo, i)]);
+        }
+        return dest;
+    }
+
+    /**
+     * @throws UniqueIdParseException if the text is not the form of an id.
+     */
+    static UniqueId parse(CharSequence text) {
+        var packed = new long[2];
+        parse(text, packed, 0);
+        return UniqueId.fromBits(packed[0], packed[1]);
+    }
+
+    /**
+     * Parses the form into dest[offset] and dest[offset + 1], in the encoding of {@link PackedIds}, without
+     * allocating.
+     *
+     * @throws UniqueIdParseException if the text is not the form of an id.
+     */
+    static void parse(CharSequence text, long[] dest, int offset) {
+        Objects.checkFromIndexSize(offset, 2, dest.length);
+        var length = text.length();
+        long hi = 0;
+        long lo = 0;
+        for (int i = 0; i < Math.min(length, ENCODED_LENGTH); i++) {
+            var c = text.charAt(i);
+            var value = c < 128 ? VALUES[c] : -1;
+            if (value < 0 || i == 0 && value > 7) {
+                throw new UniqueIdParseException(value < 0 ? "Expected base32 digit" : "Number out of range", text,
+                        i);
+            }
+            hi = (hi << 5) | (lo >>> 59);
+            lo = (lo << 5) | value;
+        }
+        if (length != ENCODED_LENGTH) {
+            throw new UniqueIdParseException(length < ENCODED_LENGTH ? "Expected base32 digit"
+                    : "Unexpected trailing character", text, Math.min(length, ENCODED_LENGTH));
+        }
+        dest[offset] = hi ^ Long.MIN_VALUE;
+        dest[offset + 1] = lo ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Parses the buffer's remaining bytes as ASCII, advancing its position to its limit on success. On failure, the
+     * position is unchanged and the error index is relative to the position.
+     *
+     * @throws UniqueIdParseException if the bytes are not the form of an id.
+     */
+    static UniqueId parse(ByteBuffer src) {
+        var offset = src.position();
+        var length = src.remaining();
+        long hi = 0;
+        long lo = 0;
+        for (int i = 0; i < Math.min(length, ENCODED_LENGTH); i++) {
+            var c = src.get(offset + i);
+            var value = c >= 0 ? VALUES[c] : -1;
+            if (value < 0 || i == 0 && value > 7) {
+                throw error(value < 0 ? "Expected base32 digit" : "Number out of range", src, i);
+            }
+            hi = (hi << 5) | (lo >>> 59);
+            lo = (lo << 5) | value;
+        }
+        if (length != ENCODED_LENGTH) {
+            throw error(length < ENCODED_LENGTH ? "Expected base32 digit" : "Unexpected trailing character", src,
+                    Math.min(length, ENCODED_LENGTH));
+        }
+        src.position(src.limit());
+        return UniqueId.fromBits(hi ^ Long.MIN_VALUE, lo ^ Long.MIN_VALUE);
+    }
+
+    /**
+     * @return The 5-bit digit at the given index of the 130-bit value made of two zero bits, hi, then lo.
+     */
+    private static int digit(long hi, long lo, int index) {
+        // Digit i holds bits [125 - 5i, 130 - 5i) of the value, counting lo's lowest bit as bit 0.
+        var shift = 125 - 5 * index;
+        if (shift >= 64) {
+            return (int) (hi >>> (shift - 64)) & 31;
+        }
+        if (shift > 59) {
+            return (int) ((hi << (64 - shift)) | (lo >>> shift)) & 31;
+        }
+        return (int) (lo >>> shift) & 31;
+    }
+
+    private static UniqueIdParseException error(String message, ByteBuffer src, int index) {
+        return new UniqueIdParseException(message, StandardCharsets.ISO_8859_1.decode(src.duplicate()), index);
+    }
+}
@@ -0,0 +1,14 @@
+package org.example;
+
+/**
+ * A callback that receives generated ids in batches, e.g., to publish thousands of ids in one network write. Adapt it
+ * to a {@link UUIDGenerator} with a {@link BatchingListener}.
+ */
+interface BatchListener {
+    /**
+     * @param packedIds The batch, as consecutive (msb, lsb) pairs in the encoding of {@link PackedIds}, starting at
+     *                  index 0. The array is reused after the call returns, so it must not be retained.
+     * @param count     Number of ids in the batch.
+     */
+    void uniqueIdsGenerated(long[] packedIds, int count);
+}
@@ -0,0 +1,146 @@
+package org.example;
+
+import lombok.Builder;
+import lombok.NonNull;
+import org.example.UUIDGenerator.Listener;
+import org.example.UUIDGenerator.UniqueId;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Listener} which accumulates ids into a primitive array of packed ids, and hands the array to a
+ * {@link BatchListener} once it holds batchSize ids or its oldest id has waited for the linger time, whichever comes
+ * first.
+ * <p>
+ * Accumulating an id copies two longs and allocates nothing; batches generated by
+ * {@link UUIDGenerator#generate(long[], int, int)} are copied in bulk. Ids must fit the {@link PackedIds} encoding,
+ * which every id generated with a default machine address does.
+ * <p>
+ * The delegate is invoked while holding this listener's lock, either on a generating thread (when a batch fills) or
+ * on an internal timer thread (when a batch lingers), so a slow delegate stalls generation; wrap this listener in an
+ * {@link AsyncListener} to move flushing off the critical path. A batch for which the delegate throws is discarded and
+ * counted in {@link #failedBatches()}.
+ */
+public final class BatchingListener implements Listener, AutoCloseable {
+
+    private static final int DEFAULT_BATCH_SIZE = 1024;
+    private static final Duration DEFAULT_LINGER = Duration.ofMillis(100);
+
+    private final BatchListener delegate;
+    private final long[] batch;
+    private final long lingerNanos;
+    private final ScheduledExecutorService timer;
+    private final LongAdder failedBatches = new LongAdder();
+    private int count;
+    /**
+     * Incremented on every flush, so that a linger timer can tell whether the batch it was scheduled for is still
+     * pending.
+     */
+    private long batchNumber;
+    private boolean closed;
+
+    /**
+     * @param delegate  Receives the batches.
+     * @param batchSize Maximum number of ids per batch. Defaults to 1024.
+     * @param linger    Maximum time an id waits for its batch to fill. Defaults to 100ms.
+     */
+    @Builder
+    private BatchingListener(@NonNull BatchListener delegate, Integer batchSize, Duration linger) {
+        var size = batchSize != null ? batchSize : DEFAULT_BATCH_SIZE;
+        if (size < 1 || size > 1 << 29) {
+            throw new IllegalArgumentException("batchSize must be between 1 and 2^29: " + size);
+        }
+        this.delegate = delegate;
+        this.batch = new long[2 * size];
+        this.lingerNanos = (linger != null ? linger : DEFAULT_LINGER).toNanos();
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "uuid-generator-batching-listener");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public synchronized void uniqueIdGenerated(UniqueId uniqueId) {
+        var leastSignificantBits = uniqueId.leastSignificantBits();
+        if (closed) {
+            throw new IllegalStateException("Listener is closed");
+        }
+        startBatchIfEmpty();
+        batch[2 * count] = uniqueId.mostSignificantBits();
+        batch[2 * count + 1] = leastSignificantBits;
+        if (++count == batch.length / 2) {
+            flush();
+        }
+    }
+
+    @Override
+    public synchronized void uniqueIdsGenerated(long[] packedIds, int offset, int count) {
+        if (closed) {
+            throw new IllegalStateException("Listener is closed");
+        }
+        while (count > 0) {
+            startBatchIfEmpty();
+            var copied = Math.min(count, batch.length / 2 - this.count);
+            System.arraycopy(packedIds, offset, batch, 2 * this.count, 2 * copied);
+            offset += 2 * copied;
+            count -= copied;
+            this.count += copied;
+            if (this.count == batch.length / 2) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * @return The number of batches discarded because the delegate threw an exception.
+     */
+    long failedBatches() {
+        return failedBatches.sum();
+    }
+
+    /**
+     * Hands any pending ids to the delegate immediately.
+     */
+    public synchronized void flush() {
+        if (count == 0) {
+            return;
+        }
+        try {
+            delegate.uniqueIdsGenerated(batch, count);
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+        }
+        count = 0;
+        batchNumber++;
+    }
+
+    /**
+     * Flushes pending ids and stops the linger timer. Ids received after closing are rejected.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            flush();
+            closed = true;
+        }
+        timer.shutdownNow();
+    }
+
+    private void startBatchIfEmpty() {
+        if (count == 0) {
+            var scheduledBatch = batchNumber;
+            timer.schedule(() -> flushIfPending(scheduledBatch), lingerNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized void flushIfPending(long scheduledBatch) {
+        if (batchNumber == scheduledBatch) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A compact binary form for streams of {@link UniqueId}s, which encodes each id relative to the previous one in the
+ * stream.
+ * <p>
+ * Each id is written as up to three unsigned LEB128 varints:
+ * <ol>
+ *     <li>the zigzag-encoded difference of its hundred nanos from the previous id's;</li>
+ *     <li>the zigzag-encoded difference of its sequence number from the previous id's, shifted left by one, with the
+ *     low bit set if its machine address differs from the previous id's;</li>
+ *     <li>only if that bit is set, the zigzag-encoded machine address.</li>
+ * </ol>
+ * The first id of a stream is encoded relative to an id with all fields zero, and an unknown machine address.
+ * Consecutive ids from one generator differ by a small number of ticks and sequence numbers and share a machine
+ * address, so they typically take 2 to 4 bytes, against around 40 characters for {@link UniqueId#toString()}.
+ * <p>
+ * Differences are computed with wrapping arithmetic, so any sequence of ids can be encoded, in any order.
+ */
+final class BinaryCodec {
+
+    /**
+     * The longest encoding of an id: two 10-byte varints, and a 5-byte varint holding a 33-bit value.
+     */
+    static final int MAX_ENCODED_LENGTH = 25;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * Encodes a stream of ids into buffers. Not threadsafe.
+     */
+    static final class Encoder {
+        private long hundredNanos;
+        private long machineAddress;
+        private int sequenceNumber;
+        private boolean machineAddressKnown;
+
+        /**
+         * Encodes the id at the buffer's position, advancing it.
+         *
+         * @return Whether the id was written, i.e., false, leaving the buffer and this encoder unchanged, if it does
+         * not fit in the buffer's remaining bytes. At most {@link #MAX_ENCODED_LENGTH} bytes are needed.
+         */
+        boolean encode(long hundredNanos, long machineAddress, int sequenceNumber, ByteBuffer dest) {
+            var timeDelta = zigzag(hundredNanos - this.hundredNanos);
+            var machineChanged = !machineAddressKnown || machineAddress != this.machineAddress;
+            var sequenceDelta = (Integer.toUnsignedLong(zigzag(sequenceNumber - this.sequenceNumber)) << 1)
+                    | (machineChanged ? 1 : 0);
+            var machine = zigzag(machineAddress);
+            var length = varintLength(timeDelta) + varintLength(sequenceDelta)
+                    + (machineChanged ? varintLength(machine) : 0);
+            if (dest.remaining() < length) {
+                return false;
+            }
+            putVarint(timeDelta, dest);
+            putVarint(sequenceDelta, dest);
+            if (machineChanged) {
+                putVarint(machine, dest);
+            }
+            this.hundredNanos = hundredNanos;
+            this.machineAddress = machineAddress;
+            this.sequenceNumber = sequenceNumber;
+            this.machineAddressKnown = true;
+            return true;
+        }
+
+        boolean encode(UniqueId uniqueId, ByteBuffer dest) {
+            return encode(uniqueId.hundredNanos(), uniqueId.machineAddress(), uniqueId.sequenceNumber(), dest);
+        }
+
+        /**
+         * Encodes packed ids, in the encoding of {@link PackedIds}, until the buffer is full.
+         *
+         * @return The number of ids written.
+         * @throws IndexOutOfBoundsException if the ids do not fit in packedIds.
+         */
+        int encode(long[] packedIds, int offset, int count, ByteBuffer dest) {
+            Objects.checkFromIndexSize(offset, 2L * count, packedIds.length);
+            for (int i = 0, j = offset; i < count; i++, j += 2) {
+                var lsb = packedIds[j + 1];
+                if (!encode(PackedIds.hundredNanos(packedIds[j]), PackedIds.machineAddress(lsb),
+                        PackedIds.sequenceNumber(lsb), dest)) {
+                    return i;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Starts a new stream, so that the next id is encoded independently of the ones before.
+         */
+        void reset() {
+            hundredNanos = 0;
+            machineAddress = 0;
+            sequenceNumber = 0;
+            machineAddressKnown = false;
+        }
+    }
+
+    /**
+     * Decodes a stream of ids written by an {@link Encoder}. Not threadsafe.
+     */
+    static final class Decoder {
+        private long hundredNanos;
+        private long machineAddress;
+        private int sequenceNumber;
+        private boolean machineAddressKnown;
+        /**
+         * The varints of the last id read by {@link #read}.
+         */
+        private final long[] varints = new long[3];
+
+        /**
+         * Decodes the id at the buffer's position, advancing it.
+         *
+         * @return The id, or null, leaving the buffer and this decoder unchanged, if the buffer's remaining bytes end
+         * before the id does.
+         * @throws IllegalArgumentException if the bytes are not a valid encoding in this stream.
+         */
+        UniqueId decode(ByteBuffer src) {
+            return read(src) ? new UniqueId(hundredNanos, machineAddress, sequenceNumber) : null;
+        }
+
+        /**
+         * Decodes ids into dest, in the encoding of {@link PackedIds}, until the buffer's remaining bytes end or count
+         * ids have been decoded, without allocating.
+         *
+         * @return The number of ids decoded.
+         * @throws IllegalArgumentException  if the bytes are not a valid encoding in this stream, or an id cannot be
+         *                                   packed.
+         * @throws IndexOutOfBoundsException if count ids do not fit in dest.
+         */
+        int decode(ByteBuffer src, long[] dest, int offset, int count) {
+            Objects.checkFromIndexSize(offset, 2L * count, dest.length);
+            for (int i = 0, j = offset; i < count; i++, j += 2) {
+                if (!read(src)) {
+                    return i;
+                }
+                dest[j] = PackedIds.mostSignificantBits(hundredNanos);
+                dest[j + 1] = PackedIds.leastSignificantBits(machineAddress, sequenceNumber);
+            }
+            return count;
+        }
+
+        /**
+         * Starts a new stream, matching {@link Encoder#reset()}.
+         */
+        void reset() {
+            hundredNanos = 0;
+            machineAddress = 0;
+            sequenceNumber = 0;
+            machineAddressKnown = false;
+        }
+
+        private boolean read(ByteBuffer src) {
+            var position = src.position();
+            var end = src.limit();
+            position = getVarint(src, position, end, 0);
+            if (position < 0) {
+                return false;
+            }
+            position = getVarint(src, position, end, 1);
+            if (position < 0) {
+                return false;
+            }
+            var machineChanged = (varints[1] & 1) != 0;
+            if (machineChanged) {
+                position = getVarint(src, position, end, 2);
+                if (position < 0) {
+                    return false;
+                }
+            } else if (!machineAddressKnown) {
+                throw new IllegalArgumentException("First id of the stream has no machine address at position "
+                        + src.position());
+            }
+            if (varints[1] >>> 33 != 0) {
+                throw new IllegalArgumentException("Sequence number delta out of range at position " + src.position());
+            }
+            hundredNanos += unzigzag(varints[0]);
+            sequenceNumber += unzigzag((int) (varints[1] >>> 1));
+            if (machineChanged) {
+                machineAddress = unzigzag(varints[2]);
+                machineAddressKnown = true;
+            }
+            src.position(position);
+            return true;
+        }
+
+        /**
+         * Reads the varint at position into varints[slot].
+         *
+         * @return The position following the varint, or -1 if it does not end before end.
+         */
+        private int getVarint(ByteBuffer src, int position, int end, int slot) {
+            long value = 0;
+            for (int shift = 0; position < end; shift += 7) {
+                var b = src.get(position++);
+                if (shift == 63 && (b & 0xFE) != 0) {
+                    throw new IllegalArgumentException("Varint overflows 64 bits at position " + (position - 1));
+                }
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    varints[slot] = value;
+                    return position;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static int varintLength(long value) {
+        // One byte per started group of 7 significant bits, and one byte for zero.
+        return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    private static void putVarint(long value, ByteBuffer dest) {
+        while ((value & ~0x7FL) != 0) {
+            dest.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        dest.put((byte) value);
+    }
+}
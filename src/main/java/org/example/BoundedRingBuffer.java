@@ -0,0 +1,96 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free, multi-producer multi-consumer queue over a power-of-two ring of slots (D. Vyukov's bounded
+ * MPMC queue).
+ * <p>
+ * Each slot carries a sequence number which tells producers and consumers whether the slot is free for the current lap
+ * of the ring, so that claiming a slot is a single compare-and-set on the head or tail counter and neither side ever
+ * blocks the other.
+ */
+final class BoundedRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity Rounded up to a power of two.
+     */
+    BoundedRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+        }
+        var size = 1 << 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        elements = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return Whether the element was added, i.e., false if the queue is full.
+     */
+    boolean offer(E element) {
+        var position = tail.get();
+        while (true) {
+            var index = (int) position & mask;
+            var lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    // A volatile store, so that it is ordered before a producer's subsequent check for parked
+                    // consumers.
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return The oldest element, or null if the queue is empty.
+     */
+    E poll() {
+        var position = head.get();
+        while (true) {
+            var index = (int) position & mask;
+            var lag = sequences.get(index) - (position + 1);
+            if (lag == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    var element = elements.get(index);
+                    elements.lazySet(index, null);
+                    sequences.lazySet(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (lag < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        var position = head.get();
+        return sequences.get((int) position & mask) - (position + 1) < 0;
+    }
+}
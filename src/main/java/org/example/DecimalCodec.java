@@ -0,0 +1,299 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes and parses the dashed decimal form of a {@link UniqueId}, e.g., "1-2-3", as ASCII without a format string,
+ * boxing or intermediate strings.
+ * <p>
+ * The length of the form is computed up front, so digits can be written from the right directly into the
+ * destination, two at a time from a lookup table.
+ * <p>
+ * Parsing is a single pass over the text which only accepts the canonical form written by this class: each field is
+ * an optional minus sign followed by decimal digits without leading zeros, and fields are joined by "-" (so a
+ * negative machine address reads "1--2-3").
+ */
+final class DecimalCodec {
+
+    private static final byte[] DIGIT_TENS = new byte[100];
+    private static final byte[] DIGIT_ONES = new byte[100];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = (byte) ('0' + i / 10);
+            DIGIT_ONES[i] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private DecimalCodec() {
+    }
+
+    /**
+     * @return The number of ASCII characters in the dashed decimal form of the id.
+     */
+    static int encodedLength(UniqueId uniqueId) {
+        return stringSize(uniqueId.hundredNanos()) + stringSize(uniqueId.machineAddress())
+                + stringSize(uniqueId.sequenceNumber()) + 2;
+    }
+
+    static String toString(UniqueId uniqueId) {
+        var bytes = new byte[encodedLength(uniqueId)];
+        write(uniqueId, bytes, 0);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return The index in dest following the last character written.
+     * @throws IndexOutOfBoundsException if the form does not fit in dest at offset.
+     */
+    static int write(UniqueId uniqueId, byte[] dest, int offset) {
+        var end = offset + encodedLength(uniqueId);
+        if (offset < 0 || end > dest.length) {
+            throw new IndexOutOfBoundsException("Cannot write " + (end - offset) + " bytes at " + offset
+                    + " into array of length " + dest.length);
+        }
+        var pos = putLong(uniqueId.sequenceNumber(), dest, end);
+        dest[--pos] = '-';
+        pos = putLong(uniqueId.machineAddress(), dest, pos);
+        dest[--pos] = '-';
+        putLong(uniqueId.hundredNanos(), dest, pos);
+        return end;
+    }
+
+    /**
+     * Writes the form at the buffer's position, advancing it.
+     *
+     * @throws BufferOverflowException if the form does not fit in the buffer's remaining bytes.
+     */
+    static void write(UniqueId uniqueId, ByteBuffer dest) {
+        var length = encodedLength(uniqueId);
+        if (length > dest.remaining()) {
+            throw new BufferOverflowException();
+        }
+        if (dest.hasArray()) {
+            write(uniqueId, dest.array(), dest.arrayOffset() + dest.position());
+        } else {
+            var pos = putLong(uniqueId.sequenceNumber(), dest, dest.position() + length);
+            dest.put(--pos, (byte) '-');
+            pos = putLong(uniqueId.machineAddress(), dest, pos);
+            dest.put(--pos, (byte) '-');
+            putLong(uniqueId.hundredNanos(), dest, pos);
+        }
+        dest.position(dest.position() + length);
+    }
+
+    static StringBuilder append(UniqueId uniqueId, StringBuilder dest) {
+        return dest.append(uniqueId.hundredNanos()).append('-').append(uniqueId.machineAddress()).append('-')
+                .append(uniqueId.sequenceNumber());
+    }
+
+    /**
+     * @throws UniqueIdParseException if the text is not the canonical form of an id.
+     */
+    static UniqueId parse(CharSequence text) {
+        var length = text.length();
+        var end = fieldEnd(text, 0, length);
+        var hundredNanos = parseLong(text, 0, end, Long.MIN_VALUE, Long.MAX_VALUE);
+        var start = separator(text, end, length);
+        end = fieldEnd(text, start, length);
+        var machineAddress = parseLong(text, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+        start = separator(text, end, length);
+        end = fieldEnd(text, start, length);
+        var sequenceNumber = (int) parseLong(text, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (end != length) {
+            throw new UniqueIdParseException("Unexpected trailing character", text, end);
+        }
+        return new UniqueId(hundredNanos, machineAddress, sequenceNumber);
+    }
+
+    /**
+     * Parses the buffer's remaining bytes as ASCII, advancing its position to its limit on success. On failure, the
+     * position is unchanged and the error index is relative to the position.
+     *
+     * @throws UniqueIdParseException if the bytes are not the canonical form of an id.
+     */
+    static UniqueId parse(ByteBuffer src) {
+        var offset = src.position();
+        var length = src.remaining();
+        var end = fieldEnd(src, offset, 0, length);
+        var hundredNanos = parseLong(src, offset, 0, end, Long.MIN_VALUE, Long.MAX_VALUE);
+        var start = separator(src, offset, end, length);
+        end = fieldEnd(src, offset, start, length);
+        var machineAddress = parseLong(src, offset, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+        start = separator(src, offset, end, length);
+        end = fieldEnd(src, offset, start, length);
+        var sequenceNumber = (int) parseLong(src, offset, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (end != length) {
+            throw error("Unexpected trailing character", src, end);
+        }
+        src.position(src.limit());
+        return new UniqueId(hundredNanos, machineAddress, sequenceNumber);
+    }
+
+    /**
+     * @return The index following the optional minus sign and run of digits starting at start.
+     */
+    private static int fieldEnd(CharSequence text, int start, int length) {
+        var pos = start < length && text.charAt(start) == '-' ? start + 1 : start;
+        while (pos < length && isDigit(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * @return The index following the separator at pos.
+     */
+    private static int separator(CharSequence text, int pos, int length) {
+        if (pos == length || text.charAt(pos) != '-') {
+            throw new UniqueIdParseException("Expected '-'", text, pos);
+        }
+        return pos + 1;
+    }
+
+    /**
+     * Parses an optional minus sign followed by digits, accumulating the negated value as in Long.parseLong so that
+     * min is reachable.
+     */
+    private static long parseLong(CharSequence text, int start, int end, long min, long max) {
+        var negative = start < end && text.charAt(start) == '-';
+        var pos = negative ? start + 1 : start;
+        if (pos == end) {
+            throw new UniqueIdParseException("Expected digit", text, pos);
+        }
+        if (text.charAt(pos) == '0' && (negative || pos + 1 < end)) {
+            throw new UniqueIdParseException("Unexpected leading zero", text, pos);
+        }
+        var limit = negative ? min : -max;
+        var multiplyLimit = limit / 10;
+        long result = 0;
+        for (; pos < end; pos++) {
+            var digit = text.charAt(pos) - '0';
+            if (result < multiplyLimit || result * 10 < limit + digit) {
+                throw new UniqueIdParseException("Number out of range", text, pos);
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static int fieldEnd(ByteBuffer src, int offset, int start, int length) {
+        var pos = start < length && src.get(offset + start) == '-' ? start + 1 : start;
+        while (pos < length && isDigit(src.get(offset + pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int separator(ByteBuffer src, int offset, int pos, int length) {
+        if (pos == length || src.get(offset + pos) != '-') {
+            throw error("Expected '-'", src, pos);
+        }
+        return pos + 1;
+    }
+
+    private static long parseLong(ByteBuffer src, int offset, int start, int end, long min, long max) {
+        var negative = start < end && src.get(offset + start) == '-';
+        var pos = negative ? start + 1 : start;
+        if (pos == end) {
+            throw error("Expected digit", src, pos);
+        }
+        if (src.get(offset + pos) == '0' && (negative || pos + 1 < end)) {
+            throw error("Unexpected leading zero", src, pos);
+        }
+        var limit = negative ? min : -max;
+        var multiplyLimit = limit / 10;
+        long result = 0;
+        for (; pos < end; pos++) {
+            var digit = src.get(offset + pos) - '0';
+            if (result < multiplyLimit || result * 10 < limit + digit) {
+                throw error("Number out of range", src, pos);
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static UniqueIdParseException error(String message, ByteBuffer src, int index) {
+        return new UniqueIdParseException(message, StandardCharsets.ISO_8859_1.decode(src.duplicate()), index);
+    }
+
+    /**
+     * @return The number of characters in the decimal form of value, including any minus sign.
+     */
+    static int stringSize(long value) {
+        int sign = 0;
+        if (value < 0) {
+            sign = 1;
+        } else {
+            value = -value;
+        }
+        long bound = -10;
+        for (int digits = 1; digits < 19; digits++) {
+            if (value > bound) {
+                return digits + sign;
+            }
+            bound *= 10;
+        }
+        return 19 + sign;
+    }
+
+    /**
+     * Writes the decimal form of value so that it ends just before index end. Works on the negated value, which
+     * unlike the absolute value is defined for Long.MIN_VALUE.
+     *
+     * @return The index of the first character written.
+     */
+    static int putLong(long value, byte[] dest, int end) {
+        var pos = end;
+        var negated = value < 0 ? value : -value;
+        while (negated <= -100) {
+            var quotient = negated / 100;
+            var remainder = (int) (quotient * 100 - negated);
+            negated = quotient;
+            dest[--pos] = DIGIT_ONES[remainder];
+            dest[--pos] = DIGIT_TENS[remainder];
+        }
+        var remainder = (int) -negated;
+        dest[--pos] = DIGIT_ONES[remainder];
+        if (remainder >= 10) {
+            dest[--pos] = DIGIT_TENS[remainder];
+        }
+        if (value < 0) {
+            dest[--pos] = '-';
+        }
+        return pos;
+    }
+
+    /**
+     * As {@link #putLong(long, byte[], int)}, with absolute puts.
+     */
+    static int putLong(long value, ByteBuffer dest, int end) {
+        var pos = end;
+        var negated = value < 0 ? value : -value;
+        while (negated <= -100) {
+            var quotient = negated / 100;
+            var remainder = (int) (quotient * 100 - negated);
+            negated = quotient;
+            dest.put(--pos, DIGIT_ONES[remainder]);
+            dest.put(--pos, DIGIT_TENS[remainder]);
+        }
+        var remainder = (int) -negated;
+        dest.put(--pos, DIGIT_ONES[remainder]);
+        if (remainder >= 10) {
+            dest.put(--pos, DIGIT_TENS[remainder]);
+        }
+        if (value < 0) {
+            dest.put(--pos, (byte) '-');
+        }
+        return pos;
+    }
+}
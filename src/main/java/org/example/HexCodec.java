@@ -0,0 +1,277 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Writes and parses the canonical 36-character hex form of the packed 128-bit encoding of a {@link UniqueId} (see
+ * {@link PackedIds}), i.e., the 8-4-4-4-12 form of {@link UUID#toString()} for
+ * {@code new UUID(mostSignificantBits, leastSignificantBits)}, e.g., "00000000-0000-0000-0000-000000020003" for the
+ * id "0-2-3".
+ * <p>
+ * The form is the UUID text format, but the packed bits are not a version 1, 6 or 7 UUID: use
+ * {@link UniqueId#toUuid(UuidLayout)} where a standard UUID is required. Since the halves are written unsigned, string
+ * order only matches {@link UniqueId#compareTo} among ids whose halves have the same signs, see {@link Base32Codec}
+ * for a sortable form.
+ * <p>
+ * Writing converts eight nibbles per long operation: the nibbles of 32 bits are spread into the eight bytes of a long,
+ * and the bytes are turned into ASCII digits with the same few additions, then stored big-endian in one write.
+ * {@link #toString(UniqueId)} is left to {@link UUID#toString()}, which creates its String without a copy.
+ * Parsing looks each character up in a table, combining groups of four into 16-bit values which are negative if any
+ * character is invalid, and only locates the invalid character once the id is known to be invalid. Digits are
+ * written in lowercase, and parsed in either case.
+ */
+final class HexCodec {
+
+    static final int ENCODED_LENGTH = 36;
+    private static final VarHandle LONG_BYTES = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_BYTES = MethodHandles.byteArrayViewVarHandle(int[].class,
+            ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_BUFFER = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_BUFFER = MethodHandles.byteBufferViewVarHandle(int[].class,
+            ByteOrder.BIG_ENDIAN);
+    /**
+     * The value of each ISO-8859-1 character, or -1 if it is not a hex digit.
+     */
+    private static final byte[] VALUES = new byte[256];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            VALUES[Character.forDigit(i, 16)] = (byte) i;
+            VALUES[Character.toUpperCase(Character.forDigit(i, 16))] = (byte) i;
+        }
+    }
+
+    private HexCodec() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id cannot be packed.
+     */
+    static String toString(UniqueId uniqueId) {
+        // The JDK builds this String without copying the bytes, which the public String constructors cannot do.
+        return new UUID(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits()).toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id cannot be packed.
+     */
+    static int write(UniqueId uniqueId, byte[] dest, int offset) {
+        return write(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits(), dest, offset);
+    }
+
+    /**
+     * Writes the form of a packed id.
+     *
+     * @return The index in dest following the last character written.
+     * @throws IndexOutOfBoundsException if the form does not fit in dest at offset.
+     */
+    static int write(long mostSignificantBits, long leastSignificantBits, byte[] dest, int offset) {
+        Objects.checkFromIndexSize(offset, ENCODED_LENGTH, dest.length);
+        var middle = digits((int) mostSignificantBits);
+        var node = digits((int) (leastSignificantBits >>> 32));
+        LONG_BYTES.set(dest, offset, digits((int) (mostSignificantBits >>> 32)));
+        dest[offset + 8] = '-';
+        INT_BYTES.set(dest, offset + 9, (int) (middle >>> 32));
+        dest[offset + 13] = '-';
+        INT_BYTES.set(dest, offset + 14, (int) middle);
+        dest[offset + 18] = '-';
+        INT_BYTES.set(dest, offset + 19, (int) (node >>> 32));
+        dest[offset + 23] = '-';
+        INT_BYTES.set(dest, offset + 24, (int) node);
+        LONG_BYTES.set(dest, offset + 28, digits((int) leastSignificantBits));
+        return offset + ENCODED_LENGTH;
+    }
+
+    /**
+     * Writes the form at the buffer's position, advancing it.
+     *
+     * @throws IllegalArgumentException if the id cannot be packed.
+     * @throws BufferOverflowException  if the form does not fit in the buffer's remaining bytes.
+     */
+    static void write(UniqueId uniqueId, ByteBuffer dest) {
+        if (dest.remaining() < ENCODED_LENGTH) {
+            throw new BufferOverflowException();
+        }
+        var msb = uniqueId.mostSignificantBits();
+        var lsb = uniqueId.leastSignificantBits();
+        var position = dest.position();
+        if (dest.hasArray()) {
+            write(msb, lsb, dest.array(), dest.arrayOffset() + position);
+        } else {
+            var middle = digits((int) msb);
+            var node = digits((int) (lsb >>> 32));
+            LONG_BUFFER.set(dest, position, digits((int) (msb >>> 32)));
+            dest.put(position + 8, (byte) '-');
+            INT_BUFFER.set(dest, position + 9, (int) (middle >>> 32));
+            dest.put(position + 13, (byte) '-');
+            INT_BUFFER.set(dest, position + 14, (int) middle);
+            dest.put(position + 18, (byte) '-');
+            INT_BUFFER.set(dest, position + 19, (int) (node >>> 32));
+            dest.put(position + 23, (byte) '-');
+            INT_BUFFER.set(dest, position + 24, (int) node);
+            LONG_BUFFER.set(dest, position + 28, digits((int) lsb));
+        }
+        dest.position(position + ENCODED_LENGTH);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id cannot be packed.
+     */
+    static StringBuilder append(UniqueId uniqueId, StringBuilder dest) {
+        var msb = uniqueId.mostSignificantBits();
+        var lsb = uniqueId.leastSignificantBits();
+        var middle = digits((int) msb);
+        var node = digits((int) (lsb >>> 32));
+        appendDigits(digits((int) (msb >>> 32)), 8, dest).append('-');
+        appendDigits(middle >>> 32, 4, dest).append('-');
+        appendDigits(middle, 4, dest).append('-');
+        appendDigits(node >>> 32, 4, dest).append('-');
+        appendDigits(node, 4, dest);
+        return appendDigits(digits((int) lsb), 8, dest);
+    }
+
+    /**
+     * @throws UniqueIdParseException if the text is not the form of an id.
+     */
+    static UniqueId parse(CharSequence text) {
+        var packed = new long[2];
+        parse(text, packed, 0);
+        return UniqueId.fromBits(packed[0], packed[1]);
+    }
+
+    /**
+     * Parses the form into dest[offset] and dest[offset + 1], in the encoding of {@link PackedIds}, without
+     * allocating.
+     *
+     * @throws UniqueIdParseException if the text is not the form of an id.
+     */
+    static void parse(CharSequence text, long[] dest, int offset) {
+        Objects.checkFromIndexSize(offset, 2, dest.length);
+        if (text.length() != ENCODED_LENGTH || text.charAt(8) != '-' || text.charAt(13) != '-'
+                || text.charAt(18) != '-' || text.charAt(23) != '-') {
+            throw invalid(text);
+        }
+        // Each group is negative if it has an invalid character, so validity is checked once for all of them.
+        var group0 = group(text, 0);
+        var group1 = group(text, 4);
+        var group2 = group(text, 9);
+        var group3 = group(text, 14);
+        var group4 = group(text, 19);
+        var group5 = group(text, 24);
+        var group6 = group(text, 28);
+        var group7 = group(text, 32);
+        if ((group0 | group1 | group2 | group3 | group4 | group5 | group6 | group7) < 0) {
+            throw invalid(text);
+        }
+        var msb = (long) group0 << 48 | (long) group1 << 32 | (long) group2 << 16 | group3;
+        var lsb = (long) group4 << 48 | (long) group5 << 32 | (long) group6 << 16 | group7;
+        dest[offset] = msb;
+        dest[offset + 1] = lsb;
+    }
+
+    /**
+     * Parses the buffer's remaining bytes as ASCII, advancing its position to its limit on success. On failure, the
+     * position is unchanged and the error index is relative to the position.
+     *
+     * @throws UniqueIdParseException if the bytes are not the form of an id.
+     */
+    static UniqueId parse(ByteBuffer src) {
+        var offset = src.position();
+        if (src.remaining() != ENCODED_LENGTH || src.get(offset + 8) != '-' || src.get(offset + 13) != '-'
+                || src.get(offset + 18) != '-' || src.get(offset + 23) != '-') {
+            throw invalid(StandardCharsets.ISO_8859_1.decode(src.duplicate()));
+        }
+        var group0 = group(src, offset);
+        var group1 = group(src, offset + 4);
+        var group2 = group(src, offset + 9);
+        var group3 = group(src, offset + 14);
+        var group4 = group(src, offset + 19);
+        var group5 = group(src, offset + 24);
+        var group6 = group(src, offset + 28);
+        var group7 = group(src, offset + 32);
+        if ((group0 | group1 | group2 | group3 | group4 | group5 | group6 | group7) < 0) {
+            throw invalid(StandardCharsets.ISO_8859_1.decode(src.duplicate()));
+        }
+        var msb = (long) group0 << 48 | (long) group1 << 32 | (long) group2 << 16 | group3;
+        var lsb = (long) group4 << 48 | (long) group5 << 32 | (long) group6 << 16 | group7;
+        src.position(src.limit());
+        return UniqueId.fromBits(msb, lsb);
+    }
+
+    /**
+     * @return The value of the four hex digits starting at index, or a negative value if any is not a hex digit.
+     */
+    private static int group(CharSequence text, int index) {
+        return value(text.charAt(index)) << 12 | value(text.charAt(index + 1)) << 8
+                | value(text.charAt(index + 2)) << 4 | value(text.charAt(index + 3));
+    }
+
+    private static int group(ByteBuffer src, int index) {
+        var chars = (int) INT_BUFFER.get(src, index);
+        return VALUES[chars >>> 24] << 12 | VALUES[(chars >>> 16) & 0xFF] << 8 | VALUES[(chars >>> 8) & 0xFF] << 4
+                | VALUES[chars & 0xFF];
+    }
+
+    private static int value(char c) {
+        return c < 256 ? VALUES[c] : -1;
+    }
+
+    /**
+     * @return The eight nibbles of value, most significant first, as the ASCII bytes of a big-endian long.
+     */
+    private static long digits(int value) {
+        // Spread the nibbles into the low halves of the eight bytes, halving the width moved at each step.
+        var nibbles = Integer.toUnsignedLong(value);
+        nibbles = (nibbles | (nibbles << 16)) & 0x0000FFFF0000FFFFL;
+        nibbles = (nibbles | (nibbles << 8)) & 0x00FF00FF00FF00FFL;
+        nibbles = (nibbles | (nibbles << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        // Adding 6 carries into the high half of exactly the bytes holding 10 to 15, which need 'a' - 10 not '0'.
+        var letters = ((nibbles + 0x0606060606060606L) >>> 4) & 0x0101010101010101L;
+        return nibbles + 0x3030303030303030L + letters * ('a' - '0' - 10);
+    }
+
+    /**
+     * Appends the last count characters of a long of {@link #digits}.
+     */
+    private static StringBuilder appendDigits(long digits, int count, StringBuilder dest) {
+        for (int shift = 8 * count - 8; shift >= 0; shift -= 8) {
+            dest.append((char) ((digits >>> shift) & 0xFF));
+        }
+        return dest;
+    }
+
+    /**
+     * @return The error at the first character of an invalid form which differs from the expected shape.
+     */
+    private static UniqueIdParseException invalid(CharSequence text) {
+        var length = text.length();
+        for (int i = 0; i < Math.min(length, ENCODED_LENGTH); i++) {
+            var c = text.charAt(i);
+            if (isSeparator(i) ? c != '-' : value(c) < 0) {
+                return new UniqueIdParseException(isSeparator(i) ? "Expected '-'" : "Expected hex digit", text, i);
+            }
+        }
+        if (length < ENCODED_LENGTH) {
+            return new UniqueIdParseException(isSeparator(length) ? "Expected '-'" : "Expected hex digit", text,
+                    length);
+        }
+        return new UniqueIdParseException("Unexpected trailing character", text, ENCODED_LENGTH);
+    }
+
+    private static boolean isSeparator(int index) {
+        return index == 8 || index == 13 || index == 18 || index == 23;
+    }
+}
@@ -0,0 +1,127 @@
+package org.example;
+
+import lombok.Builder;
+import lombok.NonNull;
+import org.example.UUIDGenerator.UniqueId;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Flow.Publisher} of an endless stream of ids from a {@link UUIDGenerator}, which only generates ids when
+ * subscribers request them, so downstream stages control the rate without any intermediate buffer.
+ * <p>
+ * Ids are generated on the thread which signals demand, in batches of up to batchSize ids per reservation of the
+ * generator's state. Outstanding demand is an atomic counter, and a work-in-progress counter makes sure only one
+ * thread emits to a subscriber at a time: a thread which requests while another is emitting (including the
+ * subscriber itself, from onNext) just adds its demand, which the emitting thread then serves. Emission never takes a
+ * lock.
+ * <p>
+ * Each subscriber receives its own ids. The stream only ends when the subscription is cancelled, or with onError if
+ * the generator fails (e.g., on a clock regression with {@link UUIDGenerator.ClockRegressionPolicy#FAIL}).
+ */
+public final class IdPublisher implements Flow.Publisher<UniqueId> {
+
+    private static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final UUIDGenerator generator;
+    private final int batchSize;
+
+    /**
+     * @param generator Generates the ids.
+     * @param batchSize Maximum number of ids generated at once. Defaults to 256.
+     */
+    @Builder
+    private IdPublisher(@NonNull UUIDGenerator generator, Integer batchSize) {
+        this.generator = generator;
+        this.batchSize = batchSize != null ? batchSize : DEFAULT_BATCH_SIZE;
+        if (this.batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+    }
+
+    /**
+     * @return A publisher of ids from the generator with default settings for all other parameters.
+     */
+    public static IdPublisher of(UUIDGenerator generator) {
+        return builder().generator(generator).build();
+    }
+
+    @Override
+    public void subscribe(@NonNull Flow.Subscriber<? super UniqueId> subscriber) {
+        var subscription = new IdSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class IdSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super UniqueId> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger workInProgress = new AtomicInteger();
+        private long[] batch;
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        IdSubscription(Flow.Subscriber<? super UniqueId> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " ids, must be positive");
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE
+                        : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void drain() {
+            if (workInProgress.getAndIncrement() != 0) {
+                return;
+            }
+            var missed = 1;
+            do {
+                var requested = demand.get();
+                var emitted = 0L;
+                while (!cancelled) {
+                    if (invalidRequest != null) {
+                        cancelled = true;
+                        subscriber.onError(invalidRequest);
+                        return;
+                    }
+                    if (emitted == requested) {
+                        // Demand may have grown while emitting. Unbounded demand is never decremented.
+                        requested = requested == Long.MAX_VALUE ? requested : demand.addAndGet(-emitted);
+                        emitted = 0;
+                        if (requested == 0) {
+                            break;
+                        }
+                    }
+                    var count = (int) Math.min(batchSize, requested - emitted);
+                    if (batch == null) {
+                        batch = new long[2 * batchSize];
+                    }
+                    try {
+                        generator.generate(batch, 0, count);
+                    } catch (RuntimeException e) {
+                        cancelled = true;
+                        subscriber.onError(e);
+                        return;
+                    }
+                    for (int i = 0; i < count && !cancelled; i++) {
+                        subscriber.onNext(UniqueId.fromBits(batch[2 * i], batch[2 * i + 1]));
+                        emitted++;
+                    }
+                }
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
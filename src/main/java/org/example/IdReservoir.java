@@ -0,0 +1,175 @@
+package org.example;
+
+import lombok.Builder;
+import lombok.NonNull;
+import org.example.UUIDGenerator.UniqueId;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serves ids from a buffer pre-filled by a background thread, so that taking an id costs a single queue poll rather
+ * than a clock read and compare-and-set on the generator.
+ * <p>
+ * The refill thread tops the buffer up with a batch from the {@link UUIDGenerator} whenever it drops below the low
+ * watermark, and discards ids older than maxStaleness. Ids taken from the reservoir are therefore at most
+ * maxStaleness older than the time they are taken, and the ordering documented on {@link UUIDGenerator} (an id with a
+ * lower timestamp was generated earlier) holds for reservoir ids within that bound. When the buffer is empty, or only
+ * holds stale ids, ids are generated inline instead and counted in {@link #misses()}.
+ * <p>
+ * All ids, including stale ones which are discarded, come from the wrapped generator, so they are unique, and its
+ * listener is invoked when they are pre-generated rather than when they are taken.
+ */
+public final class IdReservoir implements AutoCloseable {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final Duration DEFAULT_MAX_STALENESS = Duration.ofMillis(10);
+    /**
+     * Receives the packed id taken by {@link #next()}, so that only the returned UniqueId is allocated.
+     */
+    private static final ThreadLocal<long[]> SCRATCH = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final UUIDGenerator generator;
+    private final PackedIdRingBuffer buffer;
+    private final int lowWatermark;
+    private final long maxStalenessHundredNanos;
+    private final Thread refiller;
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private volatile boolean refillerParked;
+    private volatile boolean closed;
+
+    /**
+     * @param generator     Generates the ids. Its machine address must fit the {@link PackedIds} encoding.
+     * @param capacity      Size of the buffer, rounded up to a power of two. Defaults to 4096.
+     * @param lowWatermark  The buffer is refilled when it holds fewer ids than this. Defaults to half the capacity.
+     * @param maxStaleness  Ids older than this are never served. Defaults to 10ms.
+     * @param threadFactory Creates the refill thread. Defaults to a daemon platform thread.
+     */
+    @Builder
+    private IdReservoir(@NonNull UUIDGenerator generator, Integer capacity, Integer lowWatermark,
+                        Duration maxStaleness, ThreadFactory threadFactory) {
+        PackedIds.leastSignificantBits(generator.machineAddress, 0);
+        this.generator = generator;
+        this.buffer = new PackedIdRingBuffer(capacity != null ? capacity : DEFAULT_CAPACITY);
+        this.lowWatermark = lowWatermark != null ? lowWatermark : buffer.capacity() / 2;
+        if (this.lowWatermark < 1 || this.lowWatermark > buffer.capacity()) {
+            throw new IllegalArgumentException("lowWatermark must be between 1 and the capacity: " + lowWatermark);
+        }
+        this.maxStalenessHundredNanos = (maxStaleness != null ? maxStaleness : DEFAULT_MAX_STALENESS).toNanos() / 100;
+        this.refiller = threadFactory != null ? threadFactory.newThread(this::refill) : defaultThread();
+        this.refiller.start();
+    }
+
+    /**
+     * @return The oldest fresh id in the reservoir, or a new id if there is none. Use {@link #next(long[], int)} to
+     * take ids without allocating.
+     */
+    public UniqueId next() {
+        var packed = SCRATCH.get();
+        next(packed, 0);
+        return UniqueId.fromBits(packed[0], packed[1]);
+    }
+
+    /**
+     * Writes the oldest fresh id in the reservoir, or a new id if there is none, to dest[offset] and dest[offset + 1]
+     * in the encoding of {@link PackedIds}, without allocating.
+     */
+    public void next(long[] dest, int offset) {
+        var staleBound = generator.timeSource.hundredNanos() - maxStalenessHundredNanos;
+        boolean taken;
+        while ((taken = buffer.poll(dest, offset)) && dest[offset] < staleBound) {
+            discarded.increment();
+        }
+        if (!taken) {
+            misses.increment();
+            generator.generate(dest, offset, 1);
+        }
+        if (refillerParked && buffer.size() < lowWatermark) {
+            LockSupport.unpark(refiller);
+        }
+    }
+
+    /**
+     * @return The number of ids which were generated inline because the reservoir held no fresh id.
+     */
+    long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of pre-generated ids which were discarded for exceeding maxStaleness.
+     */
+    long discarded() {
+        return discarded.sum();
+    }
+
+    /**
+     * @return The number of ids currently in the reservoir, including stale ones.
+     */
+    int size() {
+        return buffer.size();
+    }
+
+    /**
+     * Stops the refill thread. Ids may still be taken afterwards, and are generated inline once the reservoir is
+     * empty.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        LockSupport.unpark(refiller);
+        refiller.join();
+    }
+
+    private void refill() {
+        var batch = new long[2 * buffer.capacity()];
+        // The ids of the batch from next (inclusive) to end (exclusive) are generated but not yet in the buffer.
+        var next = 0;
+        var end = 0;
+        var stale = new long[2];
+        // Wake up often enough to discard ids before they are much older than maxStaleness.
+        var parkNanos = Math.max(1, maxStalenessHundredNanos * 100 / 2);
+        while (!closed) {
+            var staleBound = generator.timeSource.hundredNanos() - maxStalenessHundredNanos;
+            while (buffer.poll(stale, 0, staleBound)) {
+                discarded.increment();
+            }
+            for (; next < end && batch[2 * next] < staleBound; next++) {
+                discarded.increment();
+            }
+            if (next == end) {
+                var size = buffer.size();
+                if (size < lowWatermark) {
+                    end = buffer.capacity() - size;
+                    next = 0;
+                    generator.generate(batch, 0, end);
+                }
+            }
+            if (next < end) {
+                while (next < end && buffer.offer(batch[2 * next], batch[2 * next + 1])) {
+                    next++;
+                }
+                if (next < end) {
+                    // A consumer has claimed a slot but not yet released it. The rest of the batch is offered again
+                    // once it has, rather than regenerated, as the listener has already seen it.
+                    Thread.onSpinWait();
+                }
+                continue;
+            }
+            refillerParked = true;
+            if (buffer.size() >= lowWatermark && !closed) {
+                LockSupport.parkNanos(this, parkNanos);
+            }
+            refillerParked = false;
+        }
+    }
+
+    private Thread defaultThread() {
+        var thread = new Thread(this::refill, "uuid-generator-id-reservoir");
+        thread.setDaemon(true);
+        return thread;
+    }
+}
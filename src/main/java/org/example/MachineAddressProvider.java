@@ -0,0 +1,149 @@
+package org.example;
+
+import lombok.NonNull;
+
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A strategy for determining the machine address of this process. The static methods provide the standard
+ * strategies, which all produce addresses fitting the 48-bit node of the {@link PackedIds} encoding.
+ * <p>
+ * Resolving an address may be slow (e.g., network interface lookups), so it is usually done once per process through
+ * {@link MachineIdentity}.
+ */
+interface MachineAddressProvider {
+
+    /**
+     * @return The machine address.
+     * @throws IllegalArgumentException if an address was configured for this strategy, but is invalid.
+     * @throws Exception                if this strategy cannot determine an address.
+     */
+    long machineAddress() throws Exception;
+
+    /**
+     * @return The 48-bit hardware address of the network interface of localhost, or else of the first non-loopback
+     * interface which has one. Wider addresses (e.g., EUI-64 or InfiniBand) are skipped.
+     */
+    static MachineAddressProvider mac() {
+        return () -> {
+            var hardwareAddresses = new ArrayList<byte[]>();
+            var localInterface = NetworkInterface.getByInetAddress(InetAddress.getLocalHost());
+            if (localInterface != null) {
+                hardwareAddresses.add(localInterface.getHardwareAddress());
+            }
+            for (var networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+                if (!networkInterface.isLoopback()) {
+                    hardwareAddresses.add(networkInterface.getHardwareAddress());
+                }
+            }
+            return mac48(hardwareAddresses);
+        };
+    }
+
+    /**
+     * @return The first of the hardware addresses which is 48 bits wide, skipping missing ones.
+     * @throws IllegalStateException if there is none, rather than an IllegalArgumentException, so that
+     *                               {@link #firstOf} moves on to the next strategy.
+     */
+    static long mac48(List<byte[]> hardwareAddresses) {
+        for (var hardwareAddress : hardwareAddresses) {
+            if (hardwareAddress != null && hardwareAddress.length * 8 == PackedIds.MACHINE_ADDRESS_BITS) {
+                return new BigInteger(hardwareAddress).longValue();
+            }
+        }
+        throw new IllegalStateException("No network interface with a 48-bit hardware address");
+    }
+
+    /**
+     * @return A 48-bit FNV-1a hash of the host name, taken from the HOSTNAME environment variable if set (as in most
+     * containers) to avoid a DNS lookup. Distinct hosts only collide with small probability.
+     */
+    static MachineAddressProvider hostnameHash() {
+        return () -> {
+            var hostname = System.getenv("HOSTNAME");
+            if (hostname == null || hostname.isEmpty()) {
+                hostname = InetAddress.getLocalHost().getHostName();
+            }
+            var hash = 0xcbf29ce484222325L;
+            for (var b : hostname.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+            }
+            return hash >> PackedIds.SEQUENCE_NUMBER_BITS;
+        };
+    }
+
+    /**
+     * @return The address in the given environment variable, as a decimal long, or hexadecimal with a "0x" prefix.
+     * Fails with an IllegalArgumentException if the variable is set to anything else.
+     */
+    static MachineAddressProvider environment(@NonNull String variable) {
+        return () -> {
+            var value = System.getenv(variable);
+            if (value == null) {
+                throw new IllegalStateException("Environment variable " + variable + " is not set");
+            }
+            return parse(value);
+        };
+    }
+
+    /**
+     * @return The address in the given file, as a decimal long, or hexadecimal with a "0x" prefix. Fails with an
+     * IllegalArgumentException if the file holds anything else.
+     */
+    static MachineAddressProvider file(@NonNull Path path) {
+        return () -> parse(Files.readString(path));
+    }
+
+    /**
+     * @return A random 48-bit address, drawn on every call, as for hosts without a MAC address in RFC 9562.
+     */
+    static MachineAddressProvider random() {
+        return () -> new Random().nextLong() >> PackedIds.SEQUENCE_NUMBER_BITS;
+    }
+
+    /**
+     * @return The address of the first of the given strategies which succeeds. A strategy failing with an
+     * IllegalArgumentException was explicitly configured with an invalid address, so its failure is thrown rather
+     * than silently replaced by the address of a later strategy, which could collide with another machine's. Only
+     * {@link #environment} and {@link #file} fail that way; the other standard strategies never do.
+     */
+    static MachineAddressProvider firstOf(@NonNull MachineAddressProvider... providers) {
+        var candidates = List.of(providers);
+        return () -> {
+            var failure = new IllegalStateException("No machine address provider succeeded");
+            for (var provider : candidates) {
+                try {
+                    return provider.machineAddress();
+                } catch (IllegalArgumentException e) {
+                    throw e;
+                } catch (Exception e) {
+                    failure.addSuppressed(e);
+                }
+            }
+            throw failure;
+        };
+    }
+
+    private static long parse(String value) {
+        var trimmed = value.trim();
+        var address = trimmed.startsWith("0x") ? Long.parseLong(trimmed.substring(2), 16) : Long.parseLong(trimmed);
+        return checkNode(address);
+    }
+
+    private static long checkNode(long address) {
+        if (!PackedIds.isPackable(address, 0)) {
+            throw new IllegalArgumentException("Machine address does not fit in "
+                    + PackedIds.MACHINE_ADDRESS_BITS + " bits: " + address);
+        }
+        return address;
+    }
+}
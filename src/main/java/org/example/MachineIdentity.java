@@ -0,0 +1,110 @@
+package org.example;
+
+import lombok.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Resolves a machine address once and caches it, so that every generator built afterwards starts instantly and
+ * agrees on the address.
+ * <p>
+ * {@link #process()} is the identity shared by every {@link UUIDGenerator} in the process which is not given an
+ * explicit machine address. It is resolved lazily, on the first generator built, unless resolution is started early
+ * in the background with {@link #resolveAsync()}, e.g., at application startup while other initialization runs.
+ * <p>
+ * The default strategy, in order: the {@value #ENVIRONMENT_VARIABLE} environment variable, the MAC address, then a
+ * random address. If the variable is set but invalid, resolution fails instead of falling back. The strategy can be
+ * replaced with {@link #setProcessProvider} before the process identity is resolved.
+ */
+final class MachineIdentity {
+
+    /**
+     * Environment variable which overrides the default machine address, as a decimal long, or hexadecimal with a "0x"
+     * prefix.
+     */
+    static final String ENVIRONMENT_VARIABLE = "UUID_GENERATOR_MACHINE_ADDRESS";
+
+    private static final MachineAddressProvider DEFAULT_PROVIDER = MachineAddressProvider.firstOf(
+            MachineAddressProvider.environment(ENVIRONMENT_VARIABLE), MachineAddressProvider.mac(),
+            MachineAddressProvider.random());
+
+    private static MachineIdentity process = new MachineIdentity(DEFAULT_PROVIDER);
+
+    private final MachineAddressProvider provider;
+    private CompletableFuture<Long> resolution;
+
+    MachineIdentity(@NonNull MachineAddressProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * @return The identity shared by all generators in this process.
+     */
+    static synchronized MachineIdentity process() {
+        return process;
+    }
+
+    /**
+     * Replaces the strategy of the process identity.
+     *
+     * @throws IllegalStateException if the process identity has already been resolved or is being resolved.
+     */
+    static synchronized void setProcessProvider(@NonNull MachineAddressProvider provider) {
+        if (process.started()) {
+            throw new IllegalStateException("Process machine address has already been resolved");
+        }
+        process = new MachineIdentity(provider);
+    }
+
+    /**
+     * @return The machine address, resolving it on the calling thread if no resolution has been started, and
+     * otherwise waiting for the started resolution.
+     * @throws IllegalStateException if the provider failed. The failure is cached.
+     */
+    long machineAddress() {
+        try {
+            return resolve(false).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Could not resolve machine address", e.getCause());
+        }
+    }
+
+    /**
+     * Starts resolving the machine address on a background daemon thread, if no resolution has been started.
+     *
+     * @return The resolution.
+     */
+    CompletableFuture<Long> resolveAsync() {
+        return resolve(true);
+    }
+
+    private synchronized boolean started() {
+        return resolution != null;
+    }
+
+    private CompletableFuture<Long> resolve(boolean async) {
+        CompletableFuture<Long> future;
+        synchronized (this) {
+            if (resolution != null) {
+                return resolution;
+            }
+            future = resolution = new CompletableFuture<>();
+        }
+        Runnable task = () -> {
+            try {
+                future.complete(provider.machineAddress());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        };
+        if (async) {
+            var thread = new Thread(task, "uuid-generator-machine-identity");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            task.run();
+        }
+        return future;
+    }
+}
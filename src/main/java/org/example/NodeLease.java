@@ -0,0 +1,264 @@
+package org.example;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A machine address leased from a table in a file shared by all processes on a host, so that processes on the same
+ * host get distinct machine addresses without a coordination service, even when they share a MAC address or have
+ * none.
+ * <p>
+ * The table is memory-mapped and only modified while holding an exclusive lock on the file. Each lease claims a free
+ * or expired slot, and a background thread renews it every third of the time to live. The machine address is the
+ * host address shifted left by slotBits, with the slot index in the low bits, truncated to 48 bits, so leases on one
+ * host never collide, and leases on different hosts only collide if their host addresses agree in the low
+ * (48 - slotBits) bits.
+ * <p>
+ * A process which stops renewing for longer than the time to live (e.g., a long pause) may have its slot taken by
+ * another process. The next renewal detects this and marks the lease invalid, see {@link #isValid()}. Closing the
+ * lease frees the slot immediately.
+ * <p>
+ * Pass the address to generators with {@code UUIDGenerator.builder().machineAddress(lease.machineAddress())}, or
+ * make it the process default with {@code MachineIdentity.setProcessProvider(lease::machineAddress)}.
+ */
+public final class NodeLease implements AutoCloseable {
+
+    private static final int MAGIC = 0x4E4C5431;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 32;
+    private static final int TOKEN_OFFSET = 0;
+    private static final int EXPIRY_OFFSET = 8;
+    private static final int PID_OFFSET = 16;
+    private static final int DEFAULT_SLOT_BITS = 10;
+    static final int MAX_SLOT_BITS = 16;
+    private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds(10);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer table;
+    private final Clock clock;
+    private final long timeToLiveMillis;
+    private final long token;
+    private final int slot;
+    private final long machineAddress;
+    private final Thread heartbeat;
+    private volatile boolean valid = true;
+    private volatile boolean closed;
+
+    /**
+     * @param path          The lease table, created if absent. All processes sharing it must agree on slotBits.
+     * @param hostAddress   Disambiguates this host from others. Defaults to the MAC address, else a hash of the
+     *                      host name.
+     * @param slotBits      Number of low bits of the machine address holding the slot index, between 1 and 16.
+     *                      Defaults to 10, i.e., 1024 slots.
+     * @param timeToLive    Leases not renewed within this time may be taken by other processes. Defaults to 10s.
+     * @param clock         Wall clock used for expiry, which must be comparable across processes. Defaults to the
+     *                      system clock.
+     * @param threadFactory Creates the heartbeat thread. Defaults to a daemon platform thread.
+     * @throws IllegalStateException if every slot is held by a live lease, or the table has a different layout.
+     * @throws UncheckedIOException  if the table cannot be read or written.
+     */
+    @Builder
+    private NodeLease(@NonNull Path path, Long hostAddress, Integer slotBits, Duration timeToLive, Clock clock,
+                      ThreadFactory threadFactory) {
+        int bits = slotBits != null ? slotBits : DEFAULT_SLOT_BITS;
+        if (bits < 1 || bits > MAX_SLOT_BITS) {
+            throw new IllegalArgumentException("slotBits must be between 1 and " + MAX_SLOT_BITS + ": " + bits);
+        }
+        this.timeToLiveMillis = (timeToLive != null ? timeToLive : DEFAULT_TIME_TO_LIVE).toMillis();
+        if (timeToLiveMillis < 1) {
+            throw new IllegalArgumentException("timeToLive must be at least 1ms: " + timeToLive);
+        }
+        this.clock = clock != null ? clock : Clock.systemUTC();
+        var host = hostAddress != null ? hostAddress : defaultHostAddress();
+        long token;
+        do {
+            token = new Random().nextLong();
+        } while (token == 0);
+        this.token = token;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                this.table = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + ((long) SLOT_SIZE << bits));
+                this.slot = claim(1 << bits);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not lease a slot in " + path, e);
+        }
+        var shift = PackedIds.SEQUENCE_NUMBER_BITS + bits;
+        this.machineAddress = host << shift >> PackedIds.SEQUENCE_NUMBER_BITS | slot;
+        this.heartbeat = threadFactory != null ? threadFactory.newThread(this::heartbeat) : defaultThread();
+        this.heartbeat.start();
+    }
+
+    /**
+     * @return A lease in the given table with default settings for all other parameters.
+     */
+    public static NodeLease acquire(Path path) {
+        return builder().path(path).build();
+    }
+
+    /**
+     * @return The leased machine address, which fits the 48-bit node of the {@link PackedIds} encoding.
+     */
+    public long machineAddress() {
+        return machineAddress;
+    }
+
+    /**
+     * @return The index of the leased slot.
+     */
+    public int slot() {
+        return slot;
+    }
+
+    /**
+     * @return False once the lease is closed, or a renewal found the slot taken by another process after this lease
+     * expired. Ids generated with the machine address after that point may collide with the new owner's.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Stops renewing the lease and frees the slot for other processes.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(heartbeat);
+        heartbeat.join();
+        try {
+            locked(() -> {
+                if (table.getLong(offset(slot) + TOKEN_OFFSET) == token) {
+                    table.putLong(offset(slot) + TOKEN_OFFSET, 0);
+                    table.putLong(offset(slot) + EXPIRY_OFFSET, 0);
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            valid = false;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Extends the lease by the time to live, if this process still holds the slot.
+     *
+     * @return Whether the lease is still valid.
+     */
+    boolean renew() throws IOException {
+        var renewed = locked(() -> {
+            var offset = offset(slot);
+            if (table.getLong(offset + TOKEN_OFFSET) != token) {
+                return false;
+            }
+            table.putLong(offset + EXPIRY_OFFSET, clock.millis() + timeToLiveMillis);
+            return true;
+        });
+        if (!renewed) {
+            valid = false;
+        }
+        return renewed;
+    }
+
+    private int claim(int slots) throws IOException {
+        return locked(() -> {
+            var magic = table.getInt(0);
+            if (magic == 0) {
+                table.putInt(0, MAGIC);
+                table.putInt(4, slots);
+            } else if (magic != MAGIC || table.getInt(4) != slots) {
+                throw new IllegalStateException("Lease table has a different layout: magic " + magic + ", "
+                        + table.getInt(4) + " slots, expected " + slots);
+            }
+            var now = clock.millis();
+            for (int i = 0; i < slots; i++) {
+                var offset = offset(i);
+                if (table.getLong(offset + TOKEN_OFFSET) == 0 || table.getLong(offset + EXPIRY_OFFSET) < now) {
+                    table.putLong(offset + TOKEN_OFFSET, token);
+                    table.putLong(offset + EXPIRY_OFFSET, now + timeToLiveMillis);
+                    table.putLong(offset + PID_OFFSET, ProcessHandle.current().pid());
+                    return i;
+                }
+            }
+            throw new IllegalStateException("All " + slots + " slots of the lease table are held");
+        });
+    }
+
+    private interface TableOperation<T> {
+        T apply() throws IOException;
+    }
+
+    /**
+     * Runs the operation holding the file lock. File locks are held on behalf of the whole process, so leases in the
+     * same process are serialized on a monitor as well.
+     */
+    private <T> T locked(TableOperation<T> operation) throws IOException {
+        synchronized (NodeLease.class) {
+            try (var ignored = channel.lock()) {
+                return operation.apply();
+            }
+        }
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private void heartbeat() {
+        var parkNanos = Duration.ofMillis(timeToLiveMillis).toNanos() / 3;
+        while (!closed) {
+            LockSupport.parkNanos(this, parkNanos);
+            if (closed) {
+                return;
+            }
+            try {
+                if (!renew()) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Retried on the next beat, and the lease stays valid until another process takes the slot.
+            }
+        }
+    }
+
+    private static long defaultHostAddress() {
+        try {
+            return MachineAddressProvider.firstOf(MachineAddressProvider.mac(), MachineAddressProvider.hostnameHash())
+                    .machineAddress();
+        } catch (Exception e) {
+            return new Random().nextLong();
+        }
+    }
+
+    private Thread defaultThread() {
+        var thread = new Thread(this::heartbeat, "uuid-generator-node-lease");
+        thread.setDaemon(true);
+        return thread;
+    }
+}
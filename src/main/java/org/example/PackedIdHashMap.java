@@ -0,0 +1,105 @@
+package org.example;
+
+import lombok.NonNull;
+import org.example.UUIDGenerator.UniqueId;
+
+/**
+ * A map from ids, stored in their packed form (see {@link PackedIds}), to values, in an open-addressing hash table.
+ * Null values are not supported, so that a null result always means an absent key.
+ * <p>
+ * Not threadsafe.
+ *
+ * @param <V> Type of the values.
+ */
+final class PackedIdHashMap<V> extends PackedIdHashTable {
+
+    /**
+     * Receives the entries of a map one at a time, without boxing the keys.
+     */
+    @FunctionalInterface
+    interface EntryConsumer<V> {
+        void accept(long mostSignificantBits, long leastSignificantBits, V value);
+    }
+
+    PackedIdHashMap() {
+        super(true);
+    }
+
+    /**
+     * @param expectedSize Number of entries the map holds without resizing.
+     */
+    PackedIdHashMap(int expectedSize) {
+        super(expectedSize, true);
+    }
+
+    /**
+     * @return The value previously mapped to the id, or null if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    V put(long mostSignificantBits, long leastSignificantBits, @NonNull V value) {
+        var slot = find(mostSignificantBits, leastSignificantBits);
+        if (slot >= 0) {
+            var previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(~slot, mostSignificantBits, leastSignificantBits, value);
+        return null;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id cannot be packed.
+     */
+    V put(UniqueId uniqueId, V value) {
+        return put(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits(), value);
+    }
+
+    /**
+     * @return The value mapped to the id, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    V get(long mostSignificantBits, long leastSignificantBits) {
+        var slot = find(mostSignificantBits, leastSignificantBits);
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    V get(UniqueId uniqueId) {
+        return PackedIds.isPackable(uniqueId.machineAddress(), uniqueId.sequenceNumber())
+                ? get(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits()) : null;
+    }
+
+    boolean containsKey(long mostSignificantBits, long leastSignificantBits) {
+        return find(mostSignificantBits, leastSignificantBits) >= 0;
+    }
+
+    /**
+     * @return The value which was mapped to the id, or null if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long mostSignificantBits, long leastSignificantBits) {
+        var slot = find(mostSignificantBits, leastSignificantBits);
+        if (slot < 0) {
+            return null;
+        }
+        var previous = (V) values[slot];
+        delete(slot);
+        return previous;
+    }
+
+    V remove(UniqueId uniqueId) {
+        return PackedIds.isPackable(uniqueId.machineAddress(), uniqueId.sequenceNumber())
+                ? remove(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits()) : null;
+    }
+
+    /**
+     * Passes every entry to the consumer, in no particular order. The map must not be modified meanwhile.
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(EntryConsumer<? super V> consumer) {
+        for (int slot = 0; slot <= mask + 1; slot++) {
+            if (occupied(slot)) {
+                consumer.accept(keys[2 * slot], keys[2 * slot + 1], (V) values[slot]);
+            }
+        }
+    }
+}
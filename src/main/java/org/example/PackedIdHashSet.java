@@ -0,0 +1,79 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+
+/**
+ * A set of ids stored in their packed form (see {@link PackedIds}) in an open-addressing hash table, using 21 to 43
+ * bytes per id depending on how full the table is, where a {@code HashSet<UniqueId>} uses around 80.
+ * <p>
+ * Not threadsafe.
+ */
+final class PackedIdHashSet extends PackedIdHashTable {
+
+    PackedIdHashSet() {
+        super(false);
+    }
+
+    /**
+     * @param expectedSize Number of ids the set holds without resizing.
+     */
+    PackedIdHashSet(int expectedSize) {
+        super(expectedSize, false);
+    }
+
+    /**
+     * @return Whether the id was added, i.e., false if it was already present.
+     */
+    boolean add(long mostSignificantBits, long leastSignificantBits) {
+        var slot = find(mostSignificantBits, leastSignificantBits);
+        if (slot >= 0) {
+            return false;
+        }
+        insert(~slot, mostSignificantBits, leastSignificantBits, null);
+        return true;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id cannot be packed.
+     */
+    boolean add(UniqueId uniqueId) {
+        return add(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits());
+    }
+
+    boolean contains(long mostSignificantBits, long leastSignificantBits) {
+        return find(mostSignificantBits, leastSignificantBits) >= 0;
+    }
+
+    boolean contains(UniqueId uniqueId) {
+        return PackedIds.isPackable(uniqueId.machineAddress(), uniqueId.sequenceNumber())
+                && contains(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits());
+    }
+
+    /**
+     * @return Whether the id was removed, i.e., false if it was absent.
+     */
+    boolean remove(long mostSignificantBits, long leastSignificantBits) {
+        var slot = find(mostSignificantBits, leastSignificantBits);
+        if (slot < 0) {
+            return false;
+        }
+        delete(slot);
+        return true;
+    }
+
+    boolean remove(UniqueId uniqueId) {
+        return PackedIds.isPackable(uniqueId.machineAddress(), uniqueId.sequenceNumber())
+                && remove(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits());
+    }
+
+    /**
+     * Passes every id to the consumer, in no particular order. The set must not be modified meanwhile.
+     */
+    void forEach(PackedIds.Consumer consumer) {
+        for (int slot = 0; slot <= mask + 1; slot++) {
+            if (occupied(slot)) {
+                consumer.accept(keys[2 * slot], keys[2 * slot + 1]);
+            }
+        }
+    }
+}
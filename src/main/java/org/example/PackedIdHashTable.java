@@ -0,0 +1,209 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table keyed by packed ids, shared by {@link PackedIdHashSet} and {@link PackedIdHashMap}.
+ * <p>
+ * Keys are stored inline as (msb, lsb) pairs in a single long array and probed linearly, so a lookup touches one or
+ * two adjacent cache lines rather than chasing node pointers, and an entry costs 16 bytes per slot (plus a value
+ * reference in a map) at a load factor of at most 3/4. Removal shifts later entries of the probe sequence back rather
+ * than leaving tombstones, so lookups never slow down as entries come and go.
+ * <p>
+ * The all-zero key marks empty slots, so it is stored in an extra slot past the end of the table.
+ * <p>
+ * Not threadsafe.
+ */
+abstract class PackedIdHashTable {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    long[] keys;
+    /**
+     * Values of the entries in the slot with the same index, or null in a set.
+     */
+    Object[] values;
+    int mask;
+    boolean containsZeroKey;
+    private int size;
+    private int maxFill;
+
+    /**
+     * @param expectedSize Number of entries the table holds without resizing.
+     * @param withValues   Whether to store a value per entry.
+     */
+    PackedIdHashTable(int expectedSize, boolean withValues) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        allocate(capacityFor(expectedSize), withValues);
+    }
+
+    PackedIdHashTable(boolean withValues) {
+        this(DEFAULT_EXPECTED_SIZE, withValues);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        if (values != null) {
+            Arrays.fill(values, null);
+        }
+        containsZeroKey = false;
+        size = 0;
+    }
+
+    /**
+     * @return The slot holding the key if present, else the bitwise complement of the slot to insert it at.
+     */
+    final int find(long mostSignificantBits, long leastSignificantBits) {
+        if ((mostSignificantBits | leastSignificantBits) == 0) {
+            return containsZeroKey ? mask + 1 : ~(mask + 1);
+        }
+        var slot = hash(mostSignificantBits, leastSignificantBits) & mask;
+        while (true) {
+            var msb = keys[2 * slot];
+            var lsb = keys[2 * slot + 1];
+            if (msb == mostSignificantBits && lsb == leastSignificantBits) {
+                return slot;
+            }
+            if ((msb | lsb) == 0) {
+                return ~slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Stores the key at a free slot returned by {@link #find}, growing the table if it is now too full.
+     *
+     * @return The slot now holding the key, which differs from the given slot if the table grew.
+     */
+    final int insert(int slot, long mostSignificantBits, long leastSignificantBits, Object value) {
+        if (slot == mask + 1) {
+            containsZeroKey = true;
+        } else {
+            keys[2 * slot] = mostSignificantBits;
+            keys[2 * slot + 1] = leastSignificantBits;
+        }
+        if (values != null) {
+            values[slot] = value;
+        }
+        if (++size > maxFill) {
+            rehash(2 * (mask + 1));
+            return find(mostSignificantBits, leastSignificantBits);
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the entry in an occupied slot returned by {@link #find}.
+     */
+    final void delete(int slot) {
+        size--;
+        if (slot == mask + 1) {
+            containsZeroKey = false;
+            if (values != null) {
+                values[slot] = null;
+            }
+            return;
+        }
+        // Backward-shift deletion: move each later entry of the probe run into the gap unless its home slot lies
+        // cyclically after the gap, in which case moving it would put it before its home.
+        while (true) {
+            var gap = slot;
+            long msb;
+            long lsb;
+            while (true) {
+                slot = (slot + 1) & mask;
+                msb = keys[2 * slot];
+                lsb = keys[2 * slot + 1];
+                if ((msb | lsb) == 0) {
+                    keys[2 * gap] = 0;
+                    keys[2 * gap + 1] = 0;
+                    if (values != null) {
+                        values[gap] = null;
+                    }
+                    return;
+                }
+                var home = hash(msb, lsb) & mask;
+                if (gap <= slot ? gap >= home || home > slot : gap >= home && home > slot) {
+                    break;
+                }
+            }
+            keys[2 * gap] = msb;
+            keys[2 * gap + 1] = lsb;
+            if (values != null) {
+                values[gap] = values[slot];
+            }
+        }
+    }
+
+    /**
+     * @return Whether the slot, out of the table's mask + 2 slots, holds an entry.
+     */
+    final boolean occupied(int slot) {
+        return slot == mask + 1 ? containsZeroKey : (keys[2 * slot] | keys[2 * slot + 1]) != 0;
+    }
+
+    private void rehash(int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Hash table cannot grow beyond " + MAX_CAPACITY + " slots");
+        }
+        var oldKeys = keys;
+        var oldValues = values;
+        var oldMask = mask;
+        allocate(capacity, oldValues != null);
+        for (int slot = 0; slot <= oldMask; slot++) {
+            var msb = oldKeys[2 * slot];
+            var lsb = oldKeys[2 * slot + 1];
+            if ((msb | lsb) != 0) {
+                var target = hash(msb, lsb) & mask;
+                while ((keys[2 * target] | keys[2 * target + 1]) != 0) {
+                    target = (target + 1) & mask;
+                }
+                keys[2 * target] = msb;
+                keys[2 * target + 1] = lsb;
+                if (values != null) {
+                    values[target] = oldValues[slot];
+                }
+            }
+        }
+        if (values != null) {
+            values[mask + 1] = oldValues[oldMask + 1];
+        }
+    }
+
+    private void allocate(int capacity, boolean withValues) {
+        keys = new long[2 * (capacity + 1)];
+        values = withValues ? new Object[capacity + 1] : null;
+        mask = capacity - 1;
+        maxFill = capacity / 4 * 3;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        var minimum = Math.max(2, (int) Math.min(MAX_CAPACITY, (expectedSize * 4L + 2) / 3));
+        return 1 << 32 - Integer.numberOfLeadingZeros(minimum - 1);
+    }
+
+    /**
+     * Mixes both halves with the MurmurHash3 finalizer, since consecutive ids differ only in a few low bits.
+     */
+    static int hash(long mostSignificantBits, long leastSignificantBits) {
+        var h = mostSignificantBits * 0x9E3779B97F4A7C15L + leastSignificantBits;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,113 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free, multi-producer multi-consumer queue of packed ids, stored as primitive (msb, lsb) pairs so
+ * that queueing an id allocates nothing. Follows the same slot sequence protocol as {@link BoundedRingBuffer}.
+ */
+final class PackedIdRingBuffer {
+
+    private final long[] packedIds;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity Rounded up to a power of two.
+     */
+    PackedIdRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 29) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^29: " + capacity);
+        }
+        var size = 1 << 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        packedIds = new long[2 * size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return The number of queued ids, which may be stale by the time it is returned.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * @return Whether the id was added, i.e., false if the queue is full.
+     */
+    boolean offer(long mostSignificantBits, long leastSignificantBits) {
+        var position = tail.get();
+        while (true) {
+            var index = (int) position & mask;
+            var lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    packedIds[2 * index] = mostSignificantBits;
+                    packedIds[2 * index + 1] = leastSignificantBits;
+                    // Publishes the plain writes above to consumers which read the sequence.
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest id into dest[offset] and dest[offset + 1].
+     *
+     * @return Whether an id was removed, i.e., false if the queue is empty.
+     */
+    boolean poll(long[] dest, int offset) {
+        return poll(dest, offset, Long.MAX_VALUE);
+    }
+
+    /**
+     * Removes the oldest id into dest[offset] and dest[offset + 1], provided its most significant bits (i.e., its
+     * hundred nanos) are less than the given bound.
+     *
+     * @return Whether an id was removed, i.e., false if the queue is empty or the oldest id is not below the bound.
+     */
+    boolean poll(long[] dest, int offset, long mostSignificantBitsBound) {
+        var position = head.get();
+        while (true) {
+            var index = (int) position & mask;
+            var lag = sequences.get(index) - (position + 1);
+            if (lag == 0) {
+                var mostSignificantBits = packedIds[2 * index];
+                var leastSignificantBits = packedIds[2 * index + 1];
+                // If another consumer takes this slot and a producer overwrites it meanwhile, the values read above
+                // may be torn, but then the CAS below fails and they are discarded. A torn value can at worst make
+                // this call return false spuriously.
+                if (mostSignificantBits >= mostSignificantBitsBound) {
+                    return false;
+                }
+                if (head.compareAndSet(position, position + 1)) {
+                    dest[offset] = mostSignificantBits;
+                    dest[offset + 1] = leastSignificantBits;
+                    sequences.lazySet(index, position + mask + 1);
+                    return true;
+                }
+                position = head.get();
+            } else if (lag < 0) {
+                return false;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+}
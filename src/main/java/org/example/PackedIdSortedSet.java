@@ -0,0 +1,149 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable set of ids stored in their packed form (see {@link PackedIds}) in a single array sorted in the order of
+ * {@link UniqueId#compareTo}, using 16 bytes per id. Lookups are binary searches, and ids can be visited in order or
+ * by rank, e.g., to find all ids in a time range.
+ */
+final class PackedIdSortedSet {
+
+    private final long[] packedIds;
+    private final int size;
+
+    private PackedIdSortedSet(long[] packedIds, int size) {
+        this.packedIds = packedIds;
+        this.size = size;
+    }
+
+    /**
+     * @param packedIds Ids as consecutive (msb, lsb) pairs, in any order and possibly with duplicates. Copied.
+     * @param offset    Index in packedIds of the first id's msb.
+     * @param count     Number of ids.
+     * @throws IndexOutOfBoundsException if the ids do not fit in packedIds.
+     */
+    static PackedIdSortedSet of(long[] packedIds, int offset, int count) {
+        Objects.checkFromIndexSize(offset, 2L * count, packedIds.length);
+        var sorted = Arrays.copyOfRange(packedIds, offset, offset + 2 * count);
+        PackedIds.sort(sorted, 0, count);
+        var size = 0;
+        for (int i = 0; i < count; i++) {
+            var msb = sorted[2 * i];
+            var lsb = sorted[2 * i + 1];
+            if (size == 0 || msb != sorted[2 * size - 2] || lsb != sorted[2 * size - 1]) {
+                sorted[2 * size] = msb;
+                sorted[2 * size + 1] = lsb;
+                size++;
+            }
+        }
+        return new PackedIdSortedSet(size == count ? sorted : Arrays.copyOf(sorted, 2 * size), size);
+    }
+
+    /**
+     * @throws IllegalArgumentException if an id cannot be packed.
+     */
+    static PackedIdSortedSet of(Iterable<UniqueId> uniqueIds) {
+        var packedIds = new long[16];
+        var count = 0;
+        for (var uniqueId : uniqueIds) {
+            if (2 * count == packedIds.length) {
+                packedIds = Arrays.copyOf(packedIds, 2 * packedIds.length);
+            }
+            packedIds[2 * count] = uniqueId.mostSignificantBits();
+            packedIds[2 * count + 1] = uniqueId.leastSignificantBits();
+            count++;
+        }
+        return of(packedIds, 0, count);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The rank of the id if present, else (-(insertion point) - 1), as in {@link Arrays#binarySearch}.
+     */
+    int indexOf(long mostSignificantBits, long leastSignificantBits) {
+        var lo = 0;
+        var hi = size - 1;
+        while (lo <= hi) {
+            var mid = (lo + hi) >>> 1;
+            var c = PackedIds.compare(packedIds[2 * mid], packedIds[2 * mid + 1], mostSignificantBits,
+                    leastSignificantBits);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    boolean contains(long mostSignificantBits, long leastSignificantBits) {
+        return indexOf(mostSignificantBits, leastSignificantBits) >= 0;
+    }
+
+    boolean contains(UniqueId uniqueId) {
+        return PackedIds.isPackable(uniqueId.machineAddress(), uniqueId.sequenceNumber())
+                && contains(uniqueId.mostSignificantBits(), uniqueId.leastSignificantBits());
+    }
+
+    /**
+     * @return The number of ids generated before the given hundred nanos, i.e., the rank of the first id at or after
+     * it.
+     */
+    int rankOf(long hundredNanos) {
+        var index = indexOf(PackedIds.mostSignificantBits(hundredNanos), Long.MIN_VALUE);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the rank is not below the size.
+     */
+    long mostSignificantBits(int rank) {
+        return packedIds[2 * Objects.checkIndex(rank, size)];
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the rank is not below the size.
+     */
+    long leastSignificantBits(int rank) {
+        return packedIds[2 * Objects.checkIndex(rank, size) + 1];
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the rank is not below the size.
+     */
+    UniqueId get(int rank) {
+        return UniqueId.fromBits(mostSignificantBits(rank), leastSignificantBits(rank));
+    }
+
+    /**
+     * Passes the ids with ranks from (inclusive) to to (exclusive) to the consumer, in order.
+     *
+     * @throws IndexOutOfBoundsException if the range is not within the set.
+     */
+    void forEach(int from, int to, PackedIds.Consumer consumer) {
+        Objects.checkFromToIndex(from, to, size);
+        for (int i = from; i < to; i++) {
+            consumer.accept(packedIds[2 * i], packedIds[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Passes every id to the consumer, in order.
+     */
+    void forEach(PackedIds.Consumer consumer) {
+        forEach(0, size, consumer);
+    }
+}
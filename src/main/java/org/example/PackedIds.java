@@ -0,0 +1,221 @@
+package org.example;
+
+import java.util.Objects;
+
+/**
+ * The compact 128-bit encoding of a {@link UUIDGenerator.UniqueId} as two longs.
+ * <p>
+ * The most significant long holds the hundred nanos. The least significant long holds the machine address in its high
+ * 48 bits and the sequence number in its low 16 bits:
+ * <pre>
+ *  msb: | hundredNanos (64)                         |
+ *  lsb: | machineAddress (48)     | sequenceNumber (16) |
+ * </pre>
+ * Comparing two packed ids as signed longs, msb first, gives the same order as
+ * {@link UUIDGenerator.UniqueId#compareTo}.
+ * <p>
+ * {@link #sort} orders arrays of packed ids in place this way, without boxing or allocating.
+ * <p>
+ * Only ids whose machine address fits in 48 signed bits (e.g., a MAC address) and whose sequence number fits in 16
+ * unsigned bits can be packed; this covers every id generated by {@link UUIDGenerator} with a default machine address.
+ */
+final class PackedIds {
+
+    static final int MACHINE_ADDRESS_BITS = 48;
+    static final int SEQUENCE_NUMBER_BITS = 64 - MACHINE_ADDRESS_BITS;
+    private static final long SEQUENCE_NUMBER_MASK = (1L << SEQUENCE_NUMBER_BITS) - 1;
+    /**
+     * Ranges of at most this many ids are sorted by insertion sort.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private PackedIds() {
+    }
+
+    /**
+     * Receives packed ids one at a time, without boxing.
+     */
+    @FunctionalInterface
+    interface Consumer {
+        void accept(long mostSignificantBits, long leastSignificantBits);
+    }
+
+    /**
+     * @return Whether an id with the given fields can be packed without loss.
+     */
+    static boolean isPackable(long machineAddress, int sequenceNumber) {
+        return machineAddress << SEQUENCE_NUMBER_BITS >> SEQUENCE_NUMBER_BITS == machineAddress
+                && (sequenceNumber & ~SEQUENCE_NUMBER_MASK) == 0;
+    }
+
+    static long mostSignificantBits(long hundredNanos) {
+        return hundredNanos;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the machine address or sequence number do not fit in their packed widths.
+     */
+    static long leastSignificantBits(long machineAddress, int sequenceNumber) {
+        if (!isPackable(machineAddress, sequenceNumber)) {
+            throw new IllegalArgumentException(String.format("Cannot pack machine address %d and sequence number %d "
+                    + "into %d and %d bits", machineAddress, sequenceNumber, MACHINE_ADDRESS_BITS,
+                    SEQUENCE_NUMBER_BITS));
+        }
+        return machineAddress << SEQUENCE_NUMBER_BITS | sequenceNumber;
+    }
+
+    static long hundredNanos(long mostSignificantBits) {
+        return mostSignificantBits;
+    }
+
+    static long machineAddress(long leastSignificantBits) {
+        return leastSignificantBits >> SEQUENCE_NUMBER_BITS;
+    }
+
+    static int sequenceNumber(long leastSignificantBits) {
+        return (int) (leastSignificantBits & SEQUENCE_NUMBER_MASK);
+    }
+
+    /**
+     * Compares two packed ids in the order of {@link UUIDGenerator.UniqueId#compareTo}.
+     */
+    static int compare(long mostSignificantBitsA, long leastSignificantBitsA, long mostSignificantBitsB,
+                       long leastSignificantBitsB) {
+        if (mostSignificantBitsA != mostSignificantBitsB) {
+            return Long.compare(mostSignificantBitsA, mostSignificantBitsB);
+        }
+        return Long.compare(leastSignificantBitsA, leastSignificantBitsB);
+    }
+
+    /**
+     * Sorts packed ids in place, in the order of {@link UUIDGenerator.UniqueId#compareTo}.
+     * <p>
+     * This is an introsort: quicksort with median-of-three pivots, switching to heapsort if recursion gets too deep
+     * and to insertion sort for small ranges, so it runs in O(n log n) time and O(log n) stack without allocating.
+     *
+     * @param packedIds Ids as consecutive (msb, lsb) pairs, as written by {@link UUIDGenerator#generate(long[], int,
+     *                  int)}.
+     * @param offset    Index in packedIds of the first id's msb.
+     * @param count     Number of ids to sort.
+     * @throws IndexOutOfBoundsException if the ids do not fit in packedIds.
+     */
+    static void sort(long[] packedIds, int offset, int count) {
+        Objects.checkFromIndexSize(offset, 2L * count, packedIds.length);
+        if (count > 1) {
+            introSort(packedIds, offset, 0, count - 1, 2 * (32 - Integer.numberOfLeadingZeros(count)));
+        }
+    }
+
+    /**
+     * Sorts the ids with indices lo to hi inclusive, where id i occupies packedIds[offset + 2i] and the following
+     * element.
+     */
+    private static void introSort(long[] packedIds, int offset, int lo, int hi, int depthLimit) {
+        while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(packedIds, offset, lo, hi);
+                return;
+            }
+            var split = partition(packedIds, offset, lo, hi);
+            // Recurse into the smaller side and loop on the larger one, bounding the stack depth.
+            if (split - lo < hi - split) {
+                introSort(packedIds, offset, lo, split, depthLimit);
+                lo = split + 1;
+            } else {
+                introSort(packedIds, offset, split + 1, hi, depthLimit);
+                hi = split;
+            }
+        }
+        insertionSort(packedIds, offset, lo, hi);
+    }
+
+    /**
+     * Hoare partition around the median of the first, middle and last ids.
+     *
+     * @return An index split in [lo, hi) such that ids lo to split are no greater than ids split + 1 to hi.
+     */
+    private static int partition(long[] a, int offset, int lo, int hi) {
+        var mid = lo + (hi - lo >>> 1);
+        if (compare(a, offset, mid, lo) < 0) {
+            swap(a, offset, mid, lo);
+        }
+        if (compare(a, offset, hi, lo) < 0) {
+            swap(a, offset, hi, lo);
+        }
+        if (compare(a, offset, hi, mid) < 0) {
+            swap(a, offset, hi, mid);
+        }
+        var pivotMsb = a[offset + 2 * mid];
+        var pivotLsb = a[offset + 2 * mid + 1];
+        var i = lo - 1;
+        var j = hi + 1;
+        while (true) {
+            do {
+                i++;
+            } while (compare(a[offset + 2 * i], a[offset + 2 * i + 1], pivotMsb, pivotLsb) < 0);
+            do {
+                j--;
+            } while (compare(a[offset + 2 * j], a[offset + 2 * j + 1], pivotMsb, pivotLsb) > 0);
+            if (i >= j) {
+                return j;
+            }
+            swap(a, offset, i, j);
+        }
+    }
+
+    private static void insertionSort(long[] a, int offset, int lo, int hi) {
+        for (var i = lo + 1; i <= hi; i++) {
+            var msb = a[offset + 2 * i];
+            var lsb = a[offset + 2 * i + 1];
+            var j = i - 1;
+            while (j >= lo && compare(a[offset + 2 * j], a[offset + 2 * j + 1], msb, lsb) > 0) {
+                a[offset + 2 * j + 2] = a[offset + 2 * j];
+                a[offset + 2 * j + 3] = a[offset + 2 * j + 1];
+                j--;
+            }
+            a[offset + 2 * j + 2] = msb;
+            a[offset + 2 * j + 3] = lsb;
+        }
+    }
+
+    private static void heapSort(long[] a, int offset, int lo, int hi) {
+        var n = hi - lo + 1;
+        for (var i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, offset + 2 * lo, i, n);
+        }
+        for (var last = n - 1; last > 0; last--) {
+            swap(a, offset + 2 * lo, 0, last);
+            siftDown(a, offset + 2 * lo, 0, last);
+        }
+    }
+
+    private static void siftDown(long[] a, int offset, int i, int n) {
+        while (true) {
+            var child = 2 * i + 1;
+            if (child >= n) {
+                return;
+            }
+            if (child + 1 < n && compare(a, offset, child + 1, child) > 0) {
+                child++;
+            }
+            if (compare(a, offset, child, i) <= 0) {
+                return;
+            }
+            swap(a, offset, i, child);
+            i = child;
+        }
+    }
+
+    private static int compare(long[] a, int offset, int i, int j) {
+        return compare(a[offset + 2 * i], a[offset + 2 * i + 1], a[offset + 2 * j], a[offset + 2 * j + 1]);
+    }
+
+    private static void swap(long[] a, int offset, int i, int j) {
+        var msb = a[offset + 2 * i];
+        var lsb = a[offset + 2 * i + 1];
+        a[offset + 2 * i] = a[offset + 2 * j];
+        a[offset + 2 * i + 1] = a[offset + 2 * j + 1];
+        a[offset + 2 * j] = msb;
+        a[offset + 2 * j + 1] = lsb;
+    }
+}
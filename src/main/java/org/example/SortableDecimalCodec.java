@@ -0,0 +1,210 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Writes and parses a fixed-width, 53-character decimal form of a {@link UniqueId} whose string (and ASCII byte)
+ * order matches {@link UniqueId#compareTo}, e.g., "00000000000000000001-00000000000000000002-00000000003" for the id
+ * whose dashed decimal form is "1-2-3".
+ * <p>
+ * The fields are joined by "-" as in {@link UniqueId#toString()}, and each is written at a fixed width: 20 characters
+ * for the hundred nanos and machine address, and 11 for the sequence number. A non-negative value is zero-padded to
+ * the full width. A negative value v is written as '-' followed by v + 2^63 (or v + 2^31 for the sequence number)
+ * zero-padded to the remaining width, so that it sorts before every non-negative value ('-' precedes '0') and after
+ * every smaller negative value. For example, a machine address of -1 (as produced from MACs with the high bit set)
+ * reads "-9223372036854775807", and Long.MIN_VALUE reads "-0000000000000000000".
+ * <p>
+ * Digits are written two at a time from the tables of {@link DecimalCodec}. Parsing only accepts the form written by
+ * this class.
+ */
+final class SortableDecimalCodec {
+
+    private static final int LONG_WIDTH = 20;
+    private static final int INT_WIDTH = 11;
+    static final int ENCODED_LENGTH = 2 * LONG_WIDTH + INT_WIDTH + 2;
+
+    private SortableDecimalCodec() {
+    }
+
+    static String toString(UniqueId uniqueId) {
+        var bytes = new byte[ENCODED_LENGTH];
+        write(uniqueId, bytes, 0);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return The index in dest following the last character written.
+     * @throws IndexOutOfBoundsException if the form does not fit in dest at offset.
+     */
+    static int write(UniqueId uniqueId, byte[] dest, int offset) {
+        Objects.checkFromIndexSize(offset, ENCODED_LENGTH, dest.length);
+        var pos = putField(uniqueId.hundredNanos(), Long.MIN_VALUE, LONG_WIDTH, dest, offset);
+        dest[pos++] = '-';
+        pos = putField(uniqueId.machineAddress(), Long.MIN_VALUE, LONG_WIDTH, dest, pos);
+        dest[pos++] = '-';
+        return putField(uniqueId.sequenceNumber(), Integer.MIN_VALUE, INT_WIDTH, dest, pos);
+    }
+
+    /**
+     * Writes the form at the buffer's position, advancing it.
+     *
+     * @throws BufferOverflowException if the form does not fit in the buffer's remaining bytes.
+     */
+    static void write(UniqueId uniqueId, ByteBuffer dest) {
+        if (dest.remaining() < ENCODED_LENGTH) {
+            throw new BufferOverflowException();
+        }
+        if (dest.hasArray()) {
+            write(uniqueId, dest.array(), dest.arrayOffset() + dest.position());
+        } else {
+            var pos = putField(uniqueId.hundredNanos(), Long.MIN_VALUE, LONG_WIDTH, dest, dest.position());
+            dest.put(pos++, (byte) '-');
+            pos = putField(uniqueId.machineAddress(), Long.MIN_VALUE, LONG_WIDTH, dest, pos);
+            dest.put(pos++, (byte) '-');
+            putField(uniqueId.sequenceNumber(), Integer.MIN_VALUE, INT_WIDTH, dest, pos);
+        }
+        dest.position(dest.position() + ENCODED_LENGTH);
+    }
+
+    static StringBuilder append(UniqueId uniqueId, StringBuilder dest) {
+        dest.ensureCapacity(dest.length() + ENCODED_LENGTH);
+        appendField(uniqueId.hundredNanos(), Long.MIN_VALUE, LONG_WIDTH, dest);
+        dest.append('-');
+        appendField(uniqueId.machineAddress(), Long.MIN_VALUE, LONG_WIDTH, dest);
+        dest.append('-');
+        appendField(uniqueId.sequenceNumber(), Integer.MIN_VALUE, INT_WIDTH, dest);
+        return dest;
+    }
+
+    /**
+     * @throws UniqueIdParseException if the text is not the form of an id.
+     */
+    static UniqueId parse(CharSequence text) {
+        return parse(text, null, 0, text.length());
+    }
+
+    /**
+     * Parses the buffer's remaining bytes as ASCII, advancing its position to its limit on success. On failure, the
+     * position is unchanged and the error index is relative to the position.
+     *
+     * @throws UniqueIdParseException if the bytes are not the form of an id.
+     */
+    static UniqueId parse(ByteBuffer src) {
+        var uniqueId = parse(null, src, src.position(), src.remaining());
+        src.position(src.limit());
+        return uniqueId;
+    }
+
+    /**
+     * Parses either the text, or else the length bytes of the buffer from offset, so that both inputs share one
+     * parser without copying or wrapping the buffer.
+     */
+    private static UniqueId parse(CharSequence text, ByteBuffer src, int offset, int length) {
+        var hundredNanos = parseField(text, src, offset, length, 0, Long.MIN_VALUE, LONG_WIDTH);
+        separator(text, src, offset, length, LONG_WIDTH);
+        var machineAddress = parseField(text, src, offset, length, LONG_WIDTH + 1, Long.MIN_VALUE, LONG_WIDTH);
+        separator(text, src, offset, length, 2 * LONG_WIDTH + 1);
+        var sequenceNumber = (int) parseField(text, src, offset, length, 2 * LONG_WIDTH + 2, Integer.MIN_VALUE,
+                INT_WIDTH);
+        if (length != ENCODED_LENGTH) {
+            throw error("Unexpected trailing character", text, src, offset, length, ENCODED_LENGTH);
+        }
+        return new UniqueId(hundredNanos, machineAddress, sequenceNumber);
+    }
+
+    /**
+     * Writes value, offset by -min if negative, in width characters starting at start.
+     *
+     * @return The index following the field.
+     */
+    private static int putField(long value, long min, int width, byte[] dest, int start) {
+        var end = start + width;
+        var pos = DecimalCodec.putLong(value < 0 ? value - min : value, dest, end);
+        while (pos > start + 1) {
+            dest[--pos] = '0';
+        }
+        dest[start] = (byte) (value < 0 ? '-' : '0');
+        return end;
+    }
+
+    private static int putField(long value, long min, int width, ByteBuffer dest, int start) {
+        var end = start + width;
+        var pos = DecimalCodec.putLong(value < 0 ? value - min : value, dest, end);
+        while (pos > start + 1) {
+            dest.put(--pos, (byte) '0');
+        }
+        dest.put(start, (byte) (value < 0 ? '-' : '0'));
+        return end;
+    }
+
+    /**
+     * Appends value, offset by -min if negative, in width characters.
+     */
+    private static void appendField(long value, long min, int width, StringBuilder dest) {
+        var magnitude = value < 0 ? value - min : value;
+        dest.append(value < 0 ? '-' : '0');
+        for (int i = DecimalCodec.stringSize(magnitude) + 1; i < width; i++) {
+            dest.append('0');
+        }
+        dest.append(magnitude);
+    }
+
+    /**
+     * Parses a field of width characters starting at start: '-' followed by value - min, or '0' followed by value,
+     * zero-padded.
+     */
+    private static long parseField(CharSequence text, ByteBuffer src, int offset, int length, int start, long min,
+                                   int width) {
+        if (start == length) {
+            throw error("Expected digit or '-'", text, src, offset, length, start);
+        }
+        var sign = charAt(text, src, offset, start);
+        if (sign != '-' && sign != '0') {
+            throw error(isDigit(sign) ? "Number out of range" : "Expected digit or '-'", text, src, offset, length,
+                    start);
+        }
+        var max = -(min + 1);
+        long result = 0;
+        for (int pos = start + 1; pos < start + width; pos++) {
+            var c = pos < length ? charAt(text, src, offset, pos) : -1;
+            if (!isDigit(c)) {
+                throw error("Expected digit", text, src, offset, length, pos);
+            }
+            var digit = c - '0';
+            if (result > (max - digit) / 10) {
+                throw error("Number out of range", text, src, offset, length, pos);
+            }
+            result = result * 10 + digit;
+        }
+        return sign == '-' ? result + min : result;
+    }
+
+    private static void separator(CharSequence text, ByteBuffer src, int offset, int length, int pos) {
+        if (pos == length || charAt(text, src, offset, pos) != '-') {
+            throw error("Expected '-'", text, src, offset, length, pos);
+        }
+    }
+
+    /**
+     * @return The character at index of the text, or else the byte at offset + index of the buffer, read with an
+     * absolute get, as an ISO-8859-1 character.
+     */
+    private static int charAt(CharSequence text, ByteBuffer src, int offset, int index) {
+        return text != null ? text.charAt(index) : src.get(offset + index) & 0xFF;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static UniqueIdParseException error(String message, CharSequence text, ByteBuffer src, int offset,
+                                                int length, int index) {
+        return new UniqueIdParseException(message,
+                text != null ? text : StandardCharsets.ISO_8859_1.decode(src.slice(offset, length)), index);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example;
+
+import lombok.Builder;
+import org.example.UUIDGenerator.Listener;
+import org.example.UUIDGenerator.UniqueId;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads id generation over a fixed number of {@link UUIDGenerator} stripes, so that threads do not contend on a
+ * single generator state.
+ * <p>
+ * All stripes share one machine address, and each stripe encodes its index in the low bits of the sequence number of
+ * every id it generates, so ids remain unique across stripes. Each thread is assigned a stripe round-robin on its
+ * first call to {@link #generate()} and keeps it for its lifetime. When there are more threads than stripes, threads
+ * share stripes, which is safe because every stripe is itself threadsafe.
+ * <p>
+ * Ids are ordered as documented on {@link UUIDGenerator}; within one timestamp, ids from different stripes tiebreak on
+ * the stripe index.
+ */
+public final class StripedUUIDGenerator {
+
+    /**
+     * Maximum number of sequence number bits used for the stripe index, i.e., at most 2^8 stripes.
+     */
+    static final int MAX_STRIPE_BITS = 8;
+
+    private final UUIDGenerator[] stripes;
+    private final AtomicInteger nextStripe = new AtomicInteger();
+    private final ThreadLocal<UUIDGenerator> threadStripe = ThreadLocal.withInitial(this::assignStripe);
+
+    /**
+     * @param listener               Passed to every stripe, so it is invoked concurrently from all generating threads.
+     * @param clock                  Passed to every stripe.
+     * @param timeSource             Passed to every stripe. Defaults as in {@link UUIDGenerator}.
+     * @param machineAddress         Shared by every stripe. Defaults as in {@link UUIDGenerator}.
+     * @param clockRegressionPolicy  Passed to every stripe. Defaults as in {@link UUIDGenerator}.
+     * @param sequenceBits           Passed to every stripe. Defaults as in {@link UUIDGenerator}; together with the
+     *                               stripe index, at most 16 bits.
+     * @param sequenceOverflowPolicy Passed to every stripe. Defaults as in {@link UUIDGenerator}.
+     * @param stripes                The number of stripes, rounded up to a power of two. Defaults to the number of
+     *                               available processors.
+     */
+    @Builder
+    private StripedUUIDGenerator(Listener listener, Clock clock, TimeSource timeSource, Long machineAddress,
+                                 UUIDGenerator.ClockRegressionPolicy clockRegressionPolicy, Integer sequenceBits,
+                                 UUIDGenerator.SequenceOverflowPolicy sequenceOverflowPolicy, Integer stripes) {
+        int requested = stripes != null ? stripes : Runtime.getRuntime().availableProcessors();
+        if (requested < 1 || requested > 1 << MAX_STRIPE_BITS) {
+            throw new IllegalArgumentException("stripes must be between 1 and " + (1 << MAX_STRIPE_BITS) + ": "
+                    + requested);
+        }
+        int stripeBits = 32 - Integer.numberOfLeadingZeros(requested - 1);
+        this.stripes = new UUIDGenerator[1 << stripeBits];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = UUIDGenerator.builder().listener(listener).clock(clock).timeSource(timeSource)
+                    .machineAddress(machineAddress).clockRegressionPolicy(clockRegressionPolicy).sequenceBits(sequenceBits)
+                    .sequenceOverflowPolicy(sequenceOverflowPolicy).stripeBits(stripeBits).stripe(i).build();
+        }
+    }
+
+    /**
+     * @return A new instance with default settings for all parameters
+     */
+    public static StripedUUIDGenerator make() {
+        return builder().build();
+    }
+
+    /**
+     * @return A new unique ID from the calling thread's stripe.
+     */
+    public UniqueId generate() {
+        return threadStripe.get().generate();
+    }
+
+    /**
+     * @return The number of stripes, always a power of two.
+     */
+    public int stripes() {
+        return stripes.length;
+    }
+
+    private UUIDGenerator assignStripe() {
+        return stripes[nextStripe.getAndIncrement() & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,63 @@
+package org.example;
+
+import lombok.NonNull;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Supplies the current time to a {@link UUIDGenerator} as hundreds of nanos since the Unix epoch, as a primitive so
+ * that reading the time allocates nothing.
+ */
+interface TimeSource {
+
+    /**
+     * @return The number of hundreds of nanos elapsed since 1970-01-01T00:00:00Z.
+     */
+    long hundredNanos();
+
+    /**
+     * @return A time source which reads the given clock, allocating an Instant per read. Useful for tests with a fake
+     * clock.
+     */
+    static TimeSource of(@NonNull Clock clock) {
+        return () -> hundredNanos(clock.instant());
+    }
+
+    /**
+     * @return The process-wide monotonic time source, see {@link Monotonic}.
+     */
+    static TimeSource monotonic() {
+        return Monotonic.INSTANCE;
+    }
+
+    static long hundredNanos(Instant instant) {
+        return instant.getEpochSecond() * 10000000 + instant.getNano() / 100;
+    }
+
+    /**
+     * Reads the wall clock once, then advances with System.nanoTime(). Reads are allocation-free, never go backwards,
+     * and have the resolution of System.nanoTime() rather than the (often microsecond) resolution of
+     * Clock.instant().
+     * <p>
+     * Since the wall clock is only read once, this source does not follow later adjustments of the system clock, and
+     * may drift from it by the difference in rate between the wall clock and System.nanoTime().
+     */
+    final class Monotonic implements TimeSource {
+
+        private static final Monotonic INSTANCE = new Monotonic(Clock.systemUTC());
+
+        private final long anchorHundredNanos;
+        private final long anchorNanoTime;
+
+        Monotonic(Clock clock) {
+            this.anchorNanoTime = System.nanoTime();
+            this.anchorHundredNanos = TimeSource.hundredNanos(clock.instant());
+        }
+
+        @Override
+        public long hundredNanos() {
+            return anchorHundredNanos + (System.nanoTime() - anchorNanoTime) / 100;
+        }
+    }
+}
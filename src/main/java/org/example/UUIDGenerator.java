@@ -3,12 +3,20 @@ package org.example;
 import lombok.Builder;
 import lombok.NonNull;
 
-import java.math.BigInteger;
-import java.net.InetAddress;
-import java.net.NetworkInterface;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
 import java.time.Clock;
 import java.util.Comparator;
-import java.util.Random;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Generates "universally" unique identifiers.
@@ -21,13 +29,24 @@ import java.util.Random;
  * </ol>
  * <p>
  * Each UUIDGenerator is pinned to a fixed machine address, specified as a long. This class tries to fill a default
- * machine address using the hardware address of localhost.
+ * machine address using the hardware address of localhost, resolved once per process by {@link MachineIdentity}.
  * <p>
  * The generated IDs are unique in the sense that there is only one instance of this class per machine address. If
  * there are duplicate instances of this class with the same machine address, then there is no guarantee of universal
  * uniqueness, only a guarantee that a single instance of this class will not generate duplicates.
  * <p>
- * This class is *NOT* threadsafe.
+ * This class is threadsafe and lock-free. The last issued (timestamp, sequence) pair is packed into a single word
+ * which is advanced with compare-and-set, so concurrent callers sharing one instance (and thus one machine address)
+ * never receive the same id.
+ * <p>
+ * The sequence number has a bounded width of {@link #sequenceBits} bits (256 ids per timestamp by default). When
+ * more ids are requested within a single timestamp, the {@link SequenceOverflowPolicy} decides whether to borrow the
+ * following timestamp (carrying the sequence number into it, like the monotonic modes of Snowflake and ULID) or to
+ * wait for the time source to reach it. Borrowed timestamps are counted in {@link #borrowedTicks()}.
+ * <p>
+ * If the time source steps backwards (e.g., an NTP correction of the system clock), the {@link ClockRegressionPolicy}
+ * decides whether to keep issuing ids ahead of the clock, wait for it to catch up, or fail. Ids remain unique under
+ * every policy; regressions are counted in {@link #clockRegressions()}.
  * <p>
  * Unique IDs are comparable, where the fields (timestamp, machine, sequence) are compared in succession. Thus,
  * sorting a set of ids will first sort on time, then use machine+sequence to tiebreak.
@@ -40,39 +59,114 @@ public final class UUIDGenerator {
      */
     final Listener listener;
     /**
-     * The address or identifier used to disambiguate this instance from all other instances. Defaults to MAC address
-     * or random long on failure to find MAC address.
+     * The address or identifier used to disambiguate this instance from all other instances. Defaults to the process
+     * wide {@link MachineIdentity}, i.e., the MAC address or random 48-bit long on failure to find MAC address.
      */
     final long machineAddress;
     /**
-     * The clock used to determine the instant that an ID was generated. Defaults to system UTC.
+     * The source of the time at which an ID was generated. Defaults to {@link TimeSource#monotonic()}, or to reading
+     * the clock if one is given.
+     */
+    final @NonNull TimeSource timeSource;
+    /**
+     * Number of low bits of every sequence number reserved for {@link #stripe}. Defaults to 0, i.e., no stripe.
+     */
+    final int stripeBits;
+    /**
+     * Disambiguates instances which share a machine address, e.g., one instance per thread. The stripe occupies the
+     * low {@link #stripeBits} bits of every sequence number, so instances with distinct stripes never generate the
+     * same id. Defaults to 0.
+     */
+    final int stripe;
+    static final int DEFAULT_SEQUENCE_BITS = 8;
+    /**
+     * Limits the width of the sequence number, so that the remaining 51 bits of the packed state hold at least 7
+     * years of hundred nanos after the epoch.
+     */
+    static final int MAX_SEQUENCE_BITS = 12;
+    /**
+     * Number of low bits of the packed state which hold the sequence number, i.e., the number of ids which can be
+     * generated within one timestamp is 2^sequenceBits. Together with {@link #stripeBits}, at most 16 bits, so that
+     * generated ids fit the {@link PackedIds} encoding. Defaults to 8.
+     */
+    final int sequenceBits;
+    private final long sequenceMask;
+    /**
+     * What to do when the sequence numbers of a timestamp are exhausted. Defaults to
+     * {@link SequenceOverflowPolicy#BORROW}.
+     */
+    final SequenceOverflowPolicy sequenceOverflowPolicy;
+    /**
+     * How far, in hundred nanos (i.e., 1 second), a single reservation of ids may carry past the later of the time
+     * source and the last issued timestamp. Larger requests would push every later id far ahead of the clock (and,
+     * under {@link SequenceOverflowPolicy#WAIT}, stall later callers until it catches up), so they are rejected.
+     */
+    static final long MAX_RESERVATION_AHEAD = 10_000_000;
+    private final LongAdder borrowedTicks = new LongAdder();
+    /**
+     * Hundred nanos at construction time. The packed state stores hundred nanos relative to this value, so that the
+     * high bits of the state word are not spent on the decades elapsed since the epoch.
+     */
+    private final long epoch;
+    /**
+     * The last issued (hundred nanos - epoch, sequence number) pair, packed as
+     * {@code (hundredNanos - epoch) << sequenceBits | sequenceNumber}. Packed states are strictly increasing, so
+     * every successful update claims a pair that no other caller can observe.
+     */
+    private final AtomicLong state = new PaddedAtomicLong(Long.MIN_VALUE);
+    /**
+     * What to do when the time source steps backwards. Defaults to {@link ClockRegressionPolicy#ADVANCE}.
      */
-    final @NonNull Clock clock;
+    final ClockRegressionPolicy clockRegressionPolicy;
     /**
-     * Tracks the current sequence number for the current timestamp.
+     * The latest time source reading, used to detect regressions. Every stored reading was taken before it was
+     * stored, so a reading taken after loading this value which is lower than it is a genuine regression. Concurrent
+     * updates may store a lower reading than the latest, which only delays detection.
      */
-    private int sequenceNumber = 0;
+    private final AtomicLong lastReading = new PaddedAtomicLong(Long.MIN_VALUE);
     /**
-     * Tracks the last hundred nanos generated from this instance. The sequenceNumber is reset when a new timestamp
-     * is encountered.
+     * The reading the time source last stepped back from. Callers observing a regression from the same reading count
+     * it only once, however many of them there are until the time source catches up.
      */
-    private long lastHundredNanos = 0;
+    private final AtomicLong regressedFrom = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder clockRegressions = new LongAdder();
+    private final LongAdder clockRegressionStallNanos = new LongAdder();
 
     @Builder
-    private UUIDGenerator(Listener listener, Clock clock, Long machineAddress) {
+    private UUIDGenerator(Listener listener, Clock clock, TimeSource timeSource, Long machineAddress,
+                          Integer stripeBits, Integer stripe, ClockRegressionPolicy clockRegressionPolicy,
+                          Integer sequenceBits, SequenceOverflowPolicy sequenceOverflowPolicy) {
+        if (clock != null && timeSource != null) {
+            throw new IllegalArgumentException("At most one of clock and timeSource may be given");
+        }
         this.listener = listener;
-        this.clock = clock != null ? clock : Clock.systemUTC();
-        if (machineAddress == null) {
-            try {
-                InetAddress localHost = InetAddress.getLocalHost();
-                NetworkInterface inetAddress = NetworkInterface.getByInetAddress(localHost);
-                byte[] hardwareAddress = inetAddress.getHardwareAddress();
-                machineAddress = new BigInteger(hardwareAddress).longValue();
-            } catch (Exception e) {
-                machineAddress = new Random().nextLong();
-            }
+        this.timeSource = clock != null ? TimeSource.of(clock)
+                : timeSource != null ? timeSource : TimeSource.monotonic();
+        this.stripeBits = stripeBits != null ? stripeBits : 0;
+        this.stripe = stripe != null ? stripe : 0;
+        this.clockRegressionPolicy = clockRegressionPolicy != null ? clockRegressionPolicy
+                : ClockRegressionPolicy.ADVANCE;
+        this.sequenceBits = sequenceBits != null ? sequenceBits : DEFAULT_SEQUENCE_BITS;
+        this.sequenceMask = (1L << this.sequenceBits) - 1;
+        this.sequenceOverflowPolicy = sequenceOverflowPolicy != null ? sequenceOverflowPolicy
+                : SequenceOverflowPolicy.BORROW;
+        if (this.stripeBits < 0 || this.stripeBits > StripedUUIDGenerator.MAX_STRIPE_BITS) {
+            throw new IllegalArgumentException("stripeBits must be between 0 and "
+                    + StripedUUIDGenerator.MAX_STRIPE_BITS + ": " + this.stripeBits);
+        }
+        if (this.stripe < 0 || this.stripe >= 1 << this.stripeBits) {
+            throw new IllegalArgumentException("stripe does not fit in " + this.stripeBits + " bits: " + this.stripe);
         }
-        this.machineAddress = machineAddress;
+        if (this.sequenceBits < 1 || this.sequenceBits > MAX_SEQUENCE_BITS) {
+            throw new IllegalArgumentException("sequenceBits must be between 1 and " + MAX_SEQUENCE_BITS + ": "
+                    + this.sequenceBits);
+        }
+        if (this.sequenceBits + this.stripeBits > PackedIds.SEQUENCE_NUMBER_BITS) {
+            throw new IllegalArgumentException("sequenceBits + stripeBits must be at most "
+                    + PackedIds.SEQUENCE_NUMBER_BITS + ": " + this.sequenceBits + " + " + this.stripeBits);
+        }
+        this.machineAddress = machineAddress != null ? machineAddress : MachineIdentity.process().machineAddress();
+        this.epoch = this.timeSource.hundredNanos();
     }
 
     /**
@@ -87,16 +181,9 @@ public final class UUIDGenerator {
      * with different machine addresses.
      */
     public UniqueId generate() {
-        var instant = clock.instant();
-        var oldHundredNanos = lastHundredNanos;
-        lastHundredNanos = instant.getEpochSecond() * 10000000 + instant.getNano() / 100;
-        if (oldHundredNanos == lastHundredNanos) {
-            sequenceNumber++;
-        } else {
-            sequenceNumber = 0;
-        }
+        var packed = reserve(1);
 
-        var uniqueId = new UniqueId(lastHundredNanos, machineAddress, sequenceNumber);
+        var uniqueId = new UniqueId(hundredNanos(packed), machineAddress, sequenceNumber(packed));
         if (listener != null) {
             listener.uniqueIdGenerated(uniqueId);
         }
@@ -104,13 +191,349 @@ public final class UUIDGenerator {
     }
 
     /**
-     * A callback that is invoked for every id generated for a given UUIDGenerator.
+     * Generates a batch of ids without allocating. The clock is read once, and the batch claims a contiguous range of
+     * sequence numbers (carrying into following timestamps as needed), so the ids are consecutive and ordered.
+     * <p>
+     * The listener is invoked once for the whole batch, via {@link Listener#uniqueIdsGenerated}.
+     *
+     * @param dest   Receives the ids in the encoding of {@link PackedIds}, as consecutive (msb, lsb) pairs.
+     * @param offset Index in dest of the first id's msb.
+     * @param count  Number of ids to generate, occupying {@code 2 * count} elements of dest.
+     * @throws IndexOutOfBoundsException if dest is too small.
+     * @throws IllegalArgumentException  if the machine address does not fit in the packed encoding, or the batch
+     *                                   would carry more than {@link #MAX_RESERVATION_AHEAD} ahead of the clock.
+     */
+    public void generate(long[] dest, int offset, int count) {
+        Objects.checkFromIndexSize(offset, 2L * count, dest.length);
+        var machineBits = PackedIds.leastSignificantBits(machineAddress, 0);
+        if (count == 0) {
+            return;
+        }
+        var first = reserve(count);
+        for (int i = 0, j = offset; i < count; i++, j += 2) {
+            var packed = first + i;
+            dest[j] = PackedIds.mostSignificantBits(hundredNanos(packed));
+            dest[j + 1] = machineBits | sequenceNumber(packed);
+        }
+        if (listener != null) {
+            listener.uniqueIdsGenerated(dest, offset, count);
+        }
+    }
+
+    /**
+     * As {@link #generate(long[], int, int)}, putting the ids at the buffer's position and advancing it.
+     * <p>
+     * Buffers without an accessible array (direct or read-only views) are filled with relative puts, and the listener
+     * is then invoked once per id, allocating a UniqueId for each.
+     *
+     * @throws BufferOverflowException  if fewer than {@code 2 * count} longs remain in dest.
+     * @throws IllegalArgumentException if the batch would carry more than {@link #MAX_RESERVATION_AHEAD} ahead of
+     *                                  the clock.
+     */
+    public void generate(LongBuffer dest, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        if (2L * count > dest.remaining()) {
+            throw new BufferOverflowException();
+        }
+        if (dest.hasArray()) {
+            generate(dest.array(), dest.arrayOffset() + dest.position(), count);
+            dest.position(dest.position() + 2 * count);
+            return;
+        }
+        var machineBits = PackedIds.leastSignificantBits(machineAddress, 0);
+        if (count == 0) {
+            return;
+        }
+        var first = reserve(count);
+        for (int i = 0; i < count; i++) {
+            var packed = first + i;
+            dest.put(PackedIds.mostSignificantBits(hundredNanos(packed)));
+            dest.put(machineBits | sequenceNumber(packed));
+        }
+        if (listener != null) {
+            for (int i = 0; i < count; i++) {
+                listener.uniqueIdGenerated(new UniqueId(hundredNanos(first + i), machineAddress,
+                        sequenceNumber(first + i)));
+            }
+        }
+    }
+
+    /**
+     * Returns a stream of ids, for which the whole range of {@code count} consecutive ids is reserved up front, as by
+     * {@link #generate(long[], int, int)}. The ids are then materialized lazily, without touching the generator's
+     * state again, so the stream can run in parallel: its spliterator splits the reserved range arithmetically, and
+     * every split produces its own consecutive part of it.
+     * <p>
+     * The stream is ordered, sorted and distinct, and the ids it holds are in ascending order. The listener is invoked
+     * for each id as it is materialized, on the thread consuming it.
+     *
+     * @throws IllegalArgumentException if count is negative, or the range would carry more than
+     *                                  {@link #MAX_RESERVATION_AHEAD} ahead of the clock.
+     */
+    public Stream<UniqueId> stream(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        var first = count == 0 ? 0 : reserve(count);
+        return StreamSupport.stream(new ReservedSpliterator(first, first + count), false);
+    }
+
+    /**
+     * Materializes ids from a range of reserved packed states.
+     */
+    private final class ReservedSpliterator implements Spliterator<UniqueId> {
+        private long next;
+        private final long end;
+
+        ReservedSpliterator(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super UniqueId> action) {
+            if (next == end) {
+                return false;
+            }
+            action.accept(materialize(next++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super UniqueId> action) {
+            for (; next < end; next++) {
+                action.accept(materialize(next));
+            }
+        }
+
+        @Override
+        public Spliterator<UniqueId> trySplit() {
+            var middle = next + (end - next) / 2;
+            if (middle == next) {
+                return null;
+            }
+            var prefix = new ReservedSpliterator(next, middle);
+            next = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super UniqueId> getComparator() {
+            return null;
+        }
+
+        private UniqueId materialize(long packed) {
+            var uniqueId = new UniqueId(hundredNanos(packed), machineAddress, sequenceNumber(packed));
+            if (listener != null) {
+                listener.uniqueIdGenerated(uniqueId);
+            }
+            return uniqueId;
+        }
+    }
+
+    /**
+     * Claims {@code count} consecutive packed states, then applies the sequence overflow policy to any timestamps
+     * borrowed from the future.
+     *
+     * @return The first claimed packed state.
+     * @throws IllegalArgumentException if the range would end more than {@link #MAX_RESERVATION_AHEAD} past the later
+     *                                  of the clock and the last issued timestamp, leaving the state unchanged.
+     */
+    private long reserve(long count) {
+        var now = (readTime() - epoch) << sequenceBits;
+        long previous;
+        long first;
+        do {
+            previous = state.get();
+            first = advance(previous, now);
+            // Both sides are small, so neither the limit nor the comparison can overflow, whatever the count.
+            var limit = Math.max(now, previous) + (MAX_RESERVATION_AHEAD << sequenceBits);
+            if (count - 1 > limit - first) {
+                throw new IllegalArgumentException("Reserving " + count + " ids would carry more than "
+                        + MAX_RESERVATION_AHEAD + " hundred nanos ahead of the clock");
+            }
+        } while (!state.compareAndSet(previous, first + count - 1));
+
+        // Timestamps entered by carrying the sequence number past both the clock and the last issued timestamp.
+        var borrowed = ((first + count - 1) >> sequenceBits) - (Math.max(now, previous) >> sequenceBits);
+        if (borrowed > 0) {
+            borrowedTicks.add(borrowed);
+            if (sequenceOverflowPolicy == SequenceOverflowPolicy.WAIT) {
+                awaitTime(hundredNanos(first + count - 1));
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Spins until the time source reaches the given hundred nanos.
+     */
+    private void awaitTime(long hundredNanos) {
+        while (timeSource.hundredNanos() < hundredNanos) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @return The current time, after applying the clock regression policy.
+     * @throws IllegalStateException if the time source stepped backwards and the policy is FAIL.
+     */
+    private long readTime() {
+        var latest = lastReading.get();
+        var now = timeSource.hundredNanos();
+        if (now >= latest) {
+            if (now > latest) {
+                lastReading.lazySet(now);
+            }
+            return now;
+        }
+        if (regressedFrom.getAndSet(latest) != latest) {
+            clockRegressions.increment();
+        }
+        switch (clockRegressionPolicy) {
+            case FAIL -> throw new IllegalStateException("Time source stepped backwards by " + (latest - now)
+                    + " hundred nanos");
+            case WAIT -> {
+                var start = System.nanoTime();
+                while ((now = timeSource.hundredNanos()) < latest) {
+                    // Sleep for about half the remaining gap, so long regressions do not burn a core.
+                    LockSupport.parkNanos((latest - now) * 50);
+                }
+                clockRegressionStallNanos.add(System.nanoTime() - start);
+            }
+            case ADVANCE -> {
+                // The packed state is ahead of now, so reserve() keeps issuing ids from the last issued timestamp.
+            }
+        }
+        return now;
+    }
+
+    /**
+     * @return The number of times the time source was observed stepping backwards, counting each regression once
+     * however many calls it spans.
+     */
+    long clockRegressions() {
+        return clockRegressions.sum();
+    }
+
+    /**
+     * @return The total time, in nanos, that callers waited for the time source to catch up under
+     * {@link ClockRegressionPolicy#WAIT}.
+     */
+    long clockRegressionStallNanos() {
+        return clockRegressionStallNanos.sum();
+    }
+
+    /**
+     * @return The number of timestamps ahead of the time source which were entered because the sequence numbers of
+     * the previous timestamp were exhausted.
+     */
+    long borrowedTicks() {
+        return borrowedTicks.sum();
+    }
+
+    private long hundredNanos(long packed) {
+        return (packed >> sequenceBits) + epoch;
+    }
+
+    private int sequenceNumber(long packed) {
+        return (int) (packed & sequenceMask) << stripeBits | stripe;
+    }
+
+    /**
+     * @return The packed state following {@code previous}: the current time with sequence number 0 if the clock has
+     * moved past the last issued timestamp, otherwise the next sequence number (carrying into the next timestamp).
+     */
+    private static long advance(long previous, long now) {
+        return Math.max(now, previous + 1);
+    }
+
+    /**
+     * What a generator does when its time source steps backwards. Under every policy, ids remain unique.
+     */
+    enum ClockRegressionPolicy {
+        /**
+         * Keep issuing ids from the last issued timestamp onwards, carrying the sequence number into following
+         * timestamps, until the time source catches up. Never stalls, but timestamps run ahead of the clock meanwhile.
+         */
+        ADVANCE,
+        /**
+         * Wait until the time source catches up with its latest reading, so timestamps stay close to the clock at
+         * the cost of stalling generate() for the duration of the regression.
+         */
+        WAIT,
+        /**
+         * Throw an IllegalStateException from generate().
+         */
+        FAIL
+    }
+
+    /**
+     * What a generator does when more than 2^sequenceBits ids are requested within one timestamp. Under every policy,
+     * ids remain unique and ordered.
+     */
+    enum SequenceOverflowPolicy {
+        /**
+         * Carry the sequence number into the following timestamp, even if the time source has not reached it yet.
+         * Bursts never stall, but timestamps may briefly run ahead of the clock.
+         */
+        BORROW,
+        /**
+         * Carry the sequence number into the following timestamp, then spin until the time source reaches it before
+         * returning, so that no timestamp is ahead of the clock (as in Snowflake).
+         */
+        WAIT
+    }
+
+    /**
+     * An AtomicLong padded to fill its cache line, so that the states of instances allocated next to each other (as
+     * in a {@link StripedUUIDGenerator}) are not invalidated by each other's updates.
+     */
+    @SuppressWarnings("unused")
+    private static final class PaddedAtomicLong extends AtomicLong {
+        private long p1, p2, p3, p4, p5, p6, p7;
+
+        PaddedAtomicLong(long initialValue) {
+            super(initialValue);
+        }
+    }
+
+    /**
+     * A callback that is invoked for every id generated for a given UUIDGenerator. The callback runs on the thread
+     * that called generate(), so it must be threadsafe if the generator is shared between threads.
      */
     interface Listener {
         /**
          * @param uniqueId An id that was recently generated from a UUIDGenerator instance.
          */
         void uniqueIdGenerated(UniqueId uniqueId);
+
+        /**
+         * Invoked once for every batch generated by {@link UUIDGenerator#generate(long[], int, int)}. Defaults to
+         * invoking {@link #uniqueIdGenerated} for each id in the batch.
+         *
+         * @param packedIds The batch, as (msb, lsb) pairs in the encoding of {@link PackedIds}. Only valid for the
+         *                  duration of the call.
+         * @param offset    Index in packedIds of the first id's msb.
+         * @param count     Number of ids in the batch.
+         */
+        default void uniqueIdsGenerated(long[] packedIds, int offset, int count) {
+            for (int i = 0, j = offset; i < count; i++, j += 2) {
+                uniqueIdGenerated(UniqueId.fromBits(packedIds[j], packedIds[j + 1]));
+            }
+        }
     }
 
     /**
@@ -124,14 +547,114 @@ public final class UUIDGenerator {
      */
     record UniqueId(long hundredNanos, long machineAddress, int sequenceNumber) implements Comparable<UniqueId> {
 
+        /**
+         * @return The id encoded by {@link PackedIds}.
+         */
+        static UniqueId fromBits(long mostSignificantBits, long leastSignificantBits) {
+            return new UniqueId(PackedIds.hundredNanos(mostSignificantBits),
+                    PackedIds.machineAddress(leastSignificantBits), PackedIds.sequenceNumber(leastSignificantBits));
+        }
+
+        /**
+         * Parses the string representation of an id, i.e., the inverse of {@link #toString()}, in a single pass
+         * without allocating.
+         *
+         * @throws UniqueIdParseException if the text is not exactly the string representation of an id.
+         */
+        static UniqueId parse(CharSequence text) {
+            return DecimalCodec.parse(text);
+        }
+
+        /**
+         * Parses the string representation of an id from the buffer's remaining ASCII (or UTF-8) bytes without
+         * allocating, advancing its position to its limit.
+         *
+         * @throws UniqueIdParseException if the bytes are not exactly the string representation of an id.
+         */
+        static UniqueId parse(ByteBuffer src) {
+            return DecimalCodec.parse(src);
+        }
+
+        /**
+         * @return The id held by a version 1, 6 or 7 UUID.
+         * @throws IllegalArgumentException if the UUID is not of a supported version.
+         */
+        static UniqueId fromUuid(UUID uuid) {
+            return UuidLayout.of(uuid).fromUuid(uuid);
+        }
+
+        /**
+         * @return The high half of the 128-bit encoding of this id, see {@link PackedIds}.
+         */
+        long mostSignificantBits() {
+            return PackedIds.mostSignificantBits(hundredNanos);
+        }
+
+        /**
+         * @return The low half of the 128-bit encoding of this id, see {@link PackedIds}.
+         * @throws IllegalArgumentException if the machine address or sequence number are too wide to pack.
+         */
+        long leastSignificantBits() {
+            return PackedIds.leastSignificantBits(machineAddress, sequenceNumber);
+        }
+
+        /**
+         * @return This id as a UUID in the given layout.
+         * @throws IllegalArgumentException if this id cannot be represented in the layout.
+         */
+        UUID toUuid(UuidLayout layout) {
+            return layout.toUuid(this);
+        }
+
         @Override
         public String toString() {
-            return String.format("%d-%d-%d", hundredNanos, machineAddress, sequenceNumber);
+            return DecimalCodec.toString(this);
+        }
+
+        /**
+         * @return The number of ASCII characters in {@link #toString()}.
+         */
+        int encodedLength() {
+            return DecimalCodec.encodedLength(this);
+        }
+
+        /**
+         * Writes {@link #toString()} as ASCII without allocating.
+         *
+         * @return The index in dest following the last character written.
+         * @throws IndexOutOfBoundsException if the string does not fit in dest at offset.
+         */
+        int writeTo(byte[] dest, int offset) {
+            return DecimalCodec.write(this, dest, offset);
+        }
+
+        /**
+         * Writes {@link #toString()} as ASCII at the buffer's position without allocating, advancing the position.
+         *
+         * @throws BufferOverflowException if the string does not fit in the buffer's remaining bytes.
+         */
+        void writeTo(ByteBuffer dest) {
+            DecimalCodec.write(this, dest);
+        }
+
+        /**
+         * Appends {@link #toString()} without allocating an intermediate string.
+         *
+         * @return dest
+         */
+        StringBuilder appendTo(StringBuilder dest) {
+            return DecimalCodec.append(this, dest);
         }
 
         @Override
         public int compareTo(UniqueId other) {
-            return Comparator.comparing(UniqueId::hundredNanos).thenComparing(UniqueId::machineAddress).thenComparing(UniqueId::sequenceNumber).compare(this, other);
+            if (hundredNanos != other.hundredNanos) {
+                return Long.compare(hundredNanos, other.hundredNanos);
+            }
+            if (machineAddress != other.machineAddress) {
+                return Long.compare(machineAddress, other.machineAddress);
+            }
+            return Integer.compare(sequenceNumber, other.sequenceNumber);
         }
     }
 }
@@ -0,0 +1,21 @@
+package org.example;
+
+/**
+ * Thrown when text is not the string representation of a {@link UUIDGenerator.UniqueId}.
+ */
+final class UniqueIdParseException extends IllegalArgumentException {
+
+    private final int errorIndex;
+
+    UniqueIdParseException(String message, CharSequence text, int errorIndex) {
+        super(message + " at index " + errorIndex + " of \"" + text + "\"");
+        this.errorIndex = errorIndex;
+    }
+
+    /**
+     * @return The index, relative to the start of the parsed text, of the first invalid character.
+     */
+    int errorIndex() {
+        return errorIndex;
+    }
+}
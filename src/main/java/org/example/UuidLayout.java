@@ -0,0 +1,199 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+
+import java.util.UUID;
+
+/**
+ * Maps a {@link UniqueId} onto the standard time-based UUID layouts of RFC 9562 (which obsoletes RFC 4122), for
+ * interoperability with {@link UUID} and UUID database columns.
+ * <p>
+ * The machine address is stored as the 48-bit node and sign-extended when read back, so a layout round-trips every id
+ * whose machine address fits in 48 signed bits and whose sequence number fits in the layout's sequence width.
+ * Converting any other id throws an IllegalArgumentException.
+ */
+enum UuidLayout {
+    /**
+     * Version 1: 60-bit Gregorian hundred nanos, split low-mid-high, then a 14-bit clock sequence (the sequence number)
+     * and the node.
+     */
+    V1(1, 14) {
+        @Override
+        long mostSignificantBits(long hundredNanos) {
+            var timestamp = gregorianTimestamp(hundredNanos);
+            return (timestamp & 0xFFFFFFFFL) << 32 | (timestamp >>> 32 & 0xFFFF) << 16 | VERSION_1
+                    | timestamp >>> 48;
+        }
+
+        @Override
+        long leastSignificantBits(long hundredNanos, long machineAddress, int sequenceNumber) {
+            return VARIANT | (long) sequenceNumber << 48 | machineAddress & NODE_MASK;
+        }
+
+        @Override
+        UniqueId fromBits(long mostSignificantBits, long leastSignificantBits) {
+            var timestamp = (mostSignificantBits & 0x0FFF) << 48 | (mostSignificantBits >>> 16 & 0xFFFF) << 32
+                    | mostSignificantBits >>> 32;
+            return new UniqueId(timestamp - GREGORIAN_OFFSET, node(leastSignificantBits),
+                    (int) (leastSignificantBits >>> 48 & 0x3FFF));
+        }
+    },
+    /**
+     * Version 6: the version 1 fields with the timestamp stored most significant bits first, so that UUIDs sort by
+     * time when compared byte by byte.
+     */
+    V6(6, 14) {
+        @Override
+        long mostSignificantBits(long hundredNanos) {
+            var timestamp = gregorianTimestamp(hundredNanos);
+            return timestamp >>> 12 << 16 | VERSION_6 | timestamp & 0x0FFF;
+        }
+
+        @Override
+        long leastSignificantBits(long hundredNanos, long machineAddress, int sequenceNumber) {
+            return V1.leastSignificantBits(hundredNanos, machineAddress, sequenceNumber);
+        }
+
+        @Override
+        UniqueId fromBits(long mostSignificantBits, long leastSignificantBits) {
+            var timestamp = mostSignificantBits >>> 16 << 12 | mostSignificantBits & 0x0FFF;
+            return new UniqueId(timestamp - GREGORIAN_OFFSET, node(leastSignificantBits),
+                    (int) (leastSignificantBits >>> 48 & 0x3FFF));
+        }
+    },
+    /**
+     * Version 7: 48-bit Unix milliseconds, then the 14-bit sub-millisecond hundred nanos (12 bits in rand_a, 2 bits at
+     * the top of rand_b, per the increased clock precision method of RFC 9562 section 6.2), then the node and a 12-bit
+     * sequence number, so that UUIDs sort as {@link UniqueId#compareTo} for non-negative machine addresses.
+     */
+    V7(7, 12) {
+        @Override
+        long mostSignificantBits(long hundredNanos) {
+            var millis = Math.floorDiv(hundredNanos, HUNDRED_NANOS_PER_MILLI);
+            if (millis >>> 48 != 0) {
+                throw new IllegalArgumentException("Hundred nanos out of range for UUID version 7: " + hundredNanos);
+            }
+            return millis << 16 | VERSION_7 | Math.floorMod(hundredNanos, HUNDRED_NANOS_PER_MILLI) >>> 2;
+        }
+
+        @Override
+        long leastSignificantBits(long hundredNanos, long machineAddress, int sequenceNumber) {
+            return VARIANT | Math.floorMod(hundredNanos, HUNDRED_NANOS_PER_MILLI) << 60 & 0x3000000000000000L
+                    | (machineAddress & NODE_MASK) << 12 | sequenceNumber;
+        }
+
+        @Override
+        UniqueId fromBits(long mostSignificantBits, long leastSignificantBits) {
+            var hundredNanos = (mostSignificantBits >>> 16) * HUNDRED_NANOS_PER_MILLI
+                    + ((mostSignificantBits & 0x0FFF) << 2 | leastSignificantBits >>> 60 & 0x3);
+            return new UniqueId(hundredNanos, node(leastSignificantBits >>> 12),
+                    (int) (leastSignificantBits & 0x0FFF));
+        }
+    };
+
+    /**
+     * Hundred nanos between the Gregorian epoch (1582-10-15) used by versions 1 and 6 and the Unix epoch.
+     */
+    static final long GREGORIAN_OFFSET = 0x01B21DD213814000L;
+    private static final long HUNDRED_NANOS_PER_MILLI = 10000;
+    private static final long NODE_MASK = 0xFFFFFFFFFFFFL;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long VERSION_1 = 0x1000;
+    private static final long VERSION_6 = 0x6000;
+    private static final long VERSION_7 = 0x7000;
+
+    /**
+     * The RFC 9562 version number stored in the layout.
+     */
+    final int version;
+    /**
+     * Width of the sequence number field in the layout.
+     */
+    final int sequenceNumberBits;
+
+    UuidLayout(int version, int sequenceNumberBits) {
+        this.version = version;
+        this.sequenceNumberBits = sequenceNumberBits;
+    }
+
+    /**
+     * @return The layout for the version of the given UUID.
+     * @throws IllegalArgumentException if the UUID is not an RFC 9562 UUID of version 1, 6 or 7.
+     */
+    static UuidLayout of(UUID uuid) {
+        if (uuid.variant() != 2) {
+            throw new IllegalArgumentException("Not an RFC 9562 variant UUID: " + uuid);
+        }
+        return switch (uuid.version()) {
+            case 1 -> V1;
+            case 6 -> V6;
+            case 7 -> V7;
+            default -> throw new IllegalArgumentException("Unsupported UUID version " + uuid.version() + ": " + uuid);
+        };
+    }
+
+    /**
+     * @return The UUID in this layout holding the given id.
+     * @throws IllegalArgumentException if the id cannot be represented in this layout.
+     */
+    UUID toUuid(UniqueId uniqueId) {
+        return new UUID(mostSignificantBits(uniqueId), leastSignificantBits(uniqueId));
+    }
+
+    /**
+     * @return The id held by a UUID in this layout.
+     * @throws IllegalArgumentException if the UUID is not in this layout.
+     */
+    UniqueId fromUuid(UUID uuid) {
+        if (of(uuid) != this) {
+            throw new IllegalArgumentException("Not a version " + version + " UUID: " + uuid);
+        }
+        return fromBits(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    long mostSignificantBits(UniqueId uniqueId) {
+        checkFits(uniqueId);
+        return mostSignificantBits(uniqueId.hundredNanos());
+    }
+
+    long leastSignificantBits(UniqueId uniqueId) {
+        checkFits(uniqueId);
+        return leastSignificantBits(uniqueId.hundredNanos(), uniqueId.machineAddress(), uniqueId.sequenceNumber());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the hundred nanos are out of range for this layout.
+     */
+    abstract long mostSignificantBits(long hundredNanos);
+
+    /**
+     * Encodes the low half of a UUID in this layout, without checking that the fields fit.
+     */
+    abstract long leastSignificantBits(long hundredNanos, long machineAddress, int sequenceNumber);
+
+    /**
+     * Decodes the raw bits of a UUID in this layout, without checking its version and variant.
+     */
+    abstract UniqueId fromBits(long mostSignificantBits, long leastSignificantBits);
+
+    void checkFits(UniqueId uniqueId) {
+        if (!PackedIds.isPackable(uniqueId.machineAddress(), 0)
+                || uniqueId.sequenceNumber() >>> sequenceNumberBits != 0) {
+            throw new IllegalArgumentException(String.format("Cannot represent %s as a version %d UUID: machine "
+                    + "address must fit in 48 bits and sequence number in %d bits", uniqueId, version,
+                    sequenceNumberBits));
+        }
+    }
+
+    private static long gregorianTimestamp(long hundredNanos) {
+        var timestamp = hundredNanos + GREGORIAN_OFFSET;
+        if (timestamp >>> 60 != 0) {
+            throw new IllegalArgumentException("Hundred nanos out of range for a 60-bit timestamp: " + hundredNanos);
+        }
+        return timestamp;
+    }
+
+    private static long node(long bits) {
+        return bits << 16 >> 16;
+    }
+}
@@ -0,0 +1,127 @@
+package org.example;
+
+import org.example.AsyncListener.BackpressurePolicy;
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class AsyncListenerTest {
+
+    @Test
+    @DisplayName("Ids are delivered on the consumer thread in generation order")
+    void deliversInOrder() throws Exception {
+        var log = Collections.synchronizedList(new ArrayList<UniqueId>());
+        var threads = Collections.synchronizedSet(new HashSet<Thread>());
+        var listener = AsyncListener.builder().delegate(id -> {
+            threads.add(Thread.currentThread());
+            log.add(id);
+        }).capacity(16).build();
+        var generator = UUIDGenerator.builder().listener(listener).machineAddress(1L).build();
+        var generated = new ArrayList<UniqueId>();
+        for (int i = 0; i < 10000; i++) {
+            generated.add(generator.generate());
+        }
+        listener.close();
+        assertThat(log, is(generated));
+        assertThat(threads, not(hasItem(Thread.currentThread())));
+        assertThat(listener.dropped(), is(0L));
+    }
+
+    @Test
+    @DisplayName("Concurrent producers lose no ids when blocking")
+    void concurrentProducers() throws Exception {
+        var log = Collections.synchronizedList(new ArrayList<UniqueId>());
+        var listener = AsyncListener.builder().delegate(log::add).capacity(64).build();
+        var generator = UUIDGenerator.builder().listener(listener).machineAddress(1L).build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        generator.generate();
+                    }
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        listener.close();
+        assertThat(new HashSet<>(log).size(), is(40000));
+    }
+
+    @Test
+    @DisplayName("Dropping newest keeps the oldest ids and counts drops")
+    void dropNewest() throws Exception {
+        var log = assertDrops(BackpressurePolicy.DROP_NEWEST);
+        assertThat(log, is(List.of(0, 1, 2, 3, 4)));
+    }
+
+    @Test
+    @DisplayName("Dropping oldest keeps the newest ids and counts drops")
+    void dropOldest() throws Exception {
+        var log = assertDrops(BackpressurePolicy.DROP_OLDEST);
+        assertThat(log, is(List.of(0, 6, 7, 8, 9)));
+    }
+
+    @Test
+    @DisplayName("A failing delegate does not stop delivery")
+    void failingDelegate() throws Exception {
+        var log = Collections.synchronizedList(new ArrayList<UniqueId>());
+        var listener = AsyncListener.builder().delegate(id -> {
+            if (id.sequenceNumber() == 0) {
+                throw new IllegalStateException();
+            }
+            log.add(id);
+        }).build();
+        listener.uniqueIdGenerated(new UniqueId(1, 1, 0));
+        listener.uniqueIdGenerated(new UniqueId(1, 1, 1));
+        listener.close();
+        assertThat(log, is(List.of(new UniqueId(1, 1, 1))));
+        assertThat(listener.failed(), is(1L));
+    }
+
+    /**
+     * Holds the consumer on the first id, then offers 9 more ids to a buffer of 4.
+     *
+     * @return The sequence numbers delivered.
+     */
+    private static List<Integer> assertDrops(BackpressurePolicy policy) throws Exception {
+        var log = Collections.synchronizedList(new ArrayList<Integer>());
+        var consuming = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var listener = AsyncListener.builder().delegate(id -> {
+            consuming.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            log.add(id.sequenceNumber());
+        }).capacity(4).backpressurePolicy(policy).build();
+        listener.uniqueIdGenerated(new UniqueId(1, 1, 0));
+        consuming.await();
+        for (int i = 1; i < 10; i++) {
+            listener.uniqueIdGenerated(new UniqueId(1, 1, i));
+        }
+        assertThat(listener.dropped(), is(5L));
+        release.countDown();
+        listener.close();
+        return log;
+    }
+}
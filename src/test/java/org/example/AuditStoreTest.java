@@ -0,0 +1,250 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AuditStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private AuditStore store() {
+        return AuditStore.builder().directory(directory).segmentRecords(4).build();
+    }
+
+    private static List<UniqueId> replay(AuditStore store) {
+        var ids = new ArrayList<UniqueId>();
+        store.replay((msb, lsb) -> ids.add(UniqueId.fromBits(msb, lsb)));
+        return ids;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Generated ids are appended and replayed in order across segments")
+    void appendAndReplay() throws Exception {
+        try (var store = store()) {
+            var generator = UUIDGenerator.builder().machineAddress(5L).listener(store).build();
+            var expected = new ArrayList<UniqueId>();
+            for (int i = 0; i < 6; i++) {
+                expected.add(generator.generate());
+            }
+            var batch = new long[10];
+            generator.generate(batch, 0, 5);
+            for (int i = 0; i < 5; i++) {
+                expected.add(UniqueId.fromBits(batch[2 * i], batch[2 * i + 1]));
+            }
+            assertThat(store.size(), is(11L));
+            assertThat(replay(store), is(expected));
+            var range = new ArrayList<UniqueId>();
+            store.replay(3, 9, (msb, lsb) -> range.add(UniqueId.fromBits(msb, lsb)));
+            assertThat(range, is(expected.subList(3, 9)));
+            assertThrows(IndexOutOfBoundsException.class, () -> store.replay(0, 12, (msb, lsb) -> {
+            }));
+            assertThat(segments().size(), is(3));
+            assertThat(segments().get(1).getFileName().toString(), is("00000000000000000004.ids"));
+        }
+    }
+
+    @Test
+    @DisplayName("Reopening continues after the last record")
+    void reopen() {
+        var ids = PackedIdsTest.IDS;
+        try (var store = store()) {
+            ids.subList(0, 5).forEach(store::uniqueIdGenerated);
+        }
+        try (var store = store()) {
+            assertThat(store.size(), is(5L));
+            ids.subList(5, ids.size()).forEach(store::uniqueIdGenerated);
+            assertThat(replay(store), is(ids));
+        }
+        try (var store = AuditStore.open(directory)) {
+            assertThat(replay(store), is(ids));
+        }
+    }
+
+    @Test
+    @DisplayName("A torn record truncates the store, and stale records after it are not revived")
+    void recovery() throws Exception {
+        var ids = PackedIdsTest.IDS.subList(0, 7);
+        try (var store = store()) {
+            ids.forEach(store::uniqueIdGenerated);
+        }
+        // Corrupt the second record of the last segment, i.e., id 5.
+        try (var channel = FileChannel.open(segments().get(1), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8), AuditStore.HEADER_SIZE + AuditStore.RECORD_SIZE + 8);
+        }
+        try (var store = store()) {
+            assertThat(replay(store), is(ids.subList(0, 5)));
+            store.uniqueIdGenerated(ids.get(5));
+        }
+        try (var store = store()) {
+            assertThat(replay(store), is(ids.subList(0, 6)));
+        }
+    }
+
+    @Test
+    @DisplayName("A last segment with a zeroed or short header is treated as empty and recreated")
+    void invalidLastHeader() throws Exception {
+        var ids = PackedIdsTest.IDS.subList(0, 6);
+        try (var store = store()) {
+            ids.forEach(store::uniqueIdGenerated);
+        }
+        try (var channel = FileChannel.open(segments().get(1), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(AuditStore.HEADER_SIZE), 0);
+        }
+        try (var store = store()) {
+            assertThat(replay(store), is(ids.subList(0, 4)));
+            store.uniqueIdGenerated(ids.get(4));
+        }
+        try (var channel = FileChannel.open(segments().get(1), StandardOpenOption.WRITE)) {
+            channel.truncate(AuditStore.HEADER_SIZE / 2);
+        }
+        try (var store = store()) {
+            assertThat(replay(store), is(ids.subList(0, 4)));
+            ids.subList(4, 6).forEach(store::uniqueIdGenerated);
+        }
+        try (var store = store()) {
+            assertThat(replay(store), is(ids));
+            assertThat(segments().size(), is(2));
+        }
+        // Only the last segment may be invalid.
+        try (var channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(AuditStore.HEADER_SIZE), 0);
+        }
+        assertThrows(IllegalStateException.class, this::store);
+    }
+
+    @Test
+    @DisplayName("A segment of another format version fails to open and is kept")
+    void otherVersion() throws Exception {
+        try (var store = store()) {
+            PackedIdsTest.IDS.subList(0, 6).forEach(store::uniqueIdGenerated);
+        }
+        var last = segments().get(1);
+        try (var channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 1), 4);
+        }
+        var length = Files.size(last);
+        assertThrows(IllegalStateException.class, this::store);
+        assertThat(segments(), hasItem(last));
+        assertThat(Files.size(last), is(length));
+        try (var channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 0x12345678), 0);
+        }
+        assertThrows(IllegalStateException.class, this::store);
+        assertThat(segments(), hasItem(last));
+    }
+
+    @Test
+    @DisplayName("Time range queries and lookups match a full scan, also after reopening")
+    void timeIndex() {
+        var random = new Random(4);
+        var ids = new ArrayList<UniqueId>();
+        for (int i = 0; i < 1000; i++) {
+            // Roughly increasing times, as from several threads generating concurrently.
+            ids.add(new UniqueId(10 * i + random.nextInt(50), random.nextInt(3), i));
+        }
+        try (var store = AuditStore.builder().directory(directory).segmentRecords(100).blockRecords(8).build()) {
+            ids.subList(0, 950).forEach(store::uniqueIdGenerated);
+        }
+        try (var store = AuditStore.open(directory)) {
+            ids.subList(950, ids.size()).forEach(store::uniqueIdGenerated);
+            for (int i = 0; i < 200; i++) {
+                long from = random.nextInt(10100) - 50;
+                long to = from + random.nextInt(500);
+                var expected = ids.stream().filter(id -> id.hundredNanos() >= from && id.hundredNanos() < to).toList();
+                var actual = new ArrayList<UniqueId>();
+                store.range(from, to, (msb, lsb) -> actual.add(UniqueId.fromBits(msb, lsb)));
+                assertThat(actual, is(expected));
+            }
+            for (int i = 0; i < ids.size(); i += 7) {
+                assertThat(store.contains(ids.get(i)), is(true));
+                assertThat(store.indexOf(ids.get(i).mostSignificantBits(), ids.get(i).leastSignificantBits()),
+                        is((long) i));
+            }
+            assertThat(store.contains(new UniqueId(5000, 3, 0)), is(false));
+            assertThat(store.contains(new UniqueId(Long.MAX_VALUE, 0, 0)), is(false));
+            var all = new ArrayList<UniqueId>();
+            store.range(Long.MIN_VALUE, Long.MAX_VALUE, (msb, lsb) -> all.add(UniqueId.fromBits(msb, lsb)));
+            assertThat(all, is(ids));
+        }
+    }
+
+    @Test
+    @DisplayName("The tail's block summary is only rebuilt once another block has filled")
+    void tailSummary() throws Exception {
+        var segment = AuditStore.Segment.create(directory.resolve("segment.ids"), 0, 100, 8);
+        AuditStore.BlockSummary previous = null;
+        for (int record = 0; record < 100; record++) {
+            segment.write(record, PackedIds.mostSignificantBits(record), 0);
+            var summary = segment.summary(record + 1);
+            var full = record == 99 ? 13 : (record + 1) / 8;
+            assertThat(summary.blocks(), is(full));
+            if (previous != null && previous.blocks() == full) {
+                assertThat(summary, is(sameInstance(previous)));
+            }
+            previous = summary;
+        }
+        assertThat(segment.summary(100), is(sameInstance(previous)));
+    }
+
+    @Test
+    @DisplayName("Queries interleaved with appends see every appended id")
+    void queryWhileAppending() {
+        try (var store = AuditStore.builder().directory(directory).segmentRecords(50).blockRecords(4).build()) {
+            for (int i = 0; i < 120; i++) {
+                var id = new UniqueId(i / 3, 1, i % 3);
+                store.uniqueIdGenerated(id);
+                assertThat(store.indexOf(id.mostSignificantBits(), id.leastSignificantBits()), is((long) i));
+                var count = new long[1];
+                store.range(0, i / 3 + 1, (msb, lsb) -> count[0]++);
+                assertThat(count[0], is(i + 1L));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Unwritten records never pass the checksum")
+    void checksum() {
+        assertThat(AuditStore.checksum(0, 0), is(not(0L)));
+    }
+
+    @Test
+    @DisplayName("Closed stores reject appends but replay")
+    void closed() {
+        var store = store();
+        store.uniqueIdGenerated(new UniqueId(1, 2, 3));
+        store.close();
+        assertThrows(IllegalStateException.class, () -> store.uniqueIdGenerated(new UniqueId(1, 2, 4)));
+        assertThat(replay(store), is(List.of(new UniqueId(1, 2, 3))));
+        assertThrows(IllegalArgumentException.class, () -> AuditStore.builder().directory(directory)
+                .segmentRecords(0).build());
+        var maxRecords = (Integer.MAX_VALUE - AuditStore.HEADER_SIZE) / AuditStore.RECORD_SIZE;
+        assertThrows(IllegalArgumentException.class, () -> AuditStore.builder().directory(directory)
+                .segmentRecords(maxRecords).blockRecords(1).build());
+        assertThrows(IllegalArgumentException.class, () -> AuditStore.builder().directory(directory)
+                .segmentRecords(maxRecords + 1).build());
+    }
+}
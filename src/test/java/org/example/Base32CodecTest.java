@@ -0,0 +1,107 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Base32CodecTest {
+
+    @Test
+    @DisplayName("Extreme ids encode to the extreme strings")
+    void extremes() {
+        assertThat(Base32Codec.toString(new UniqueId(Long.MIN_VALUE, -(1L << 47), 0)),
+                is("00000000000000000000000000"));
+        assertThat(Base32Codec.toString(new UniqueId(Long.MAX_VALUE, (1L << 47) - 1, 65535)),
+                is("7ZZZZZZZZZZZZZZZZZZZZZZZZZ"));
+        assertThat(Base32Codec.toString(new UniqueId(0, 0, 0)), is("40000000000008000000000000"));
+    }
+
+    @Test
+    @DisplayName("Matches the 128-bit big-endian value of the sign-flipped packed id")
+    void bitLayout() {
+        for (var id : PackedIdsTest.IDS) {
+            var value = new BigInteger(1, ByteBuffer.allocate(16)
+                    .putLong(id.mostSignificantBits() ^ Long.MIN_VALUE)
+                    .putLong(id.leastSignificantBits() ^ Long.MIN_VALUE).array());
+            var expected = value.toString(32).toUpperCase();
+            var crockford = new StringBuilder();
+            for (var c : expected.toCharArray()) {
+                crockford.append("0123456789ABCDEFGHJKMNPQRSTVWXYZ".charAt(Character.digit(c, 32)));
+            }
+            var padded = "0".repeat(26 - crockford.length()) + crockford;
+            assertThat(Base32Codec.toString(id), is(padded));
+        }
+    }
+
+    @Test
+    @DisplayName("String order matches UniqueId order")
+    void ordering() {
+        for (var a : PackedIdsTest.IDS) {
+            for (var b : PackedIdsTest.IDS) {
+                assertThat(Integer.signum(Base32Codec.toString(a).compareTo(Base32Codec.toString(b))),
+                        is(Integer.signum(a.compareTo(b))));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("All forms round-trip")
+    void roundTrip() {
+        for (var id : PackedIdsTest.IDS) {
+            var text = Base32Codec.toString(id);
+            assertThat(Base32Codec.parse(text), is(id));
+            assertThat(Base32Codec.parse(text.toLowerCase()), is(id));
+            assertThat(Base32Codec.append(id, new StringBuilder("x")).toString(), is("x" + text));
+            var bytes = new byte[28];
+            assertThat(Base32Codec.write(id, bytes, 1), is(27));
+            assertThat(new String(bytes, 1, 26, StandardCharsets.US_ASCII), is(text));
+            var packed = new long[3];
+            Base32Codec.parse(text, packed, 1);
+            assertThat(UniqueId.fromBits(packed[1], packed[2]), is(id));
+            for (var buffer : List.of(ByteBuffer.allocate(26), ByteBuffer.allocateDirect(26))) {
+                Base32Codec.write(id, buffer);
+                assertThat(buffer.hasRemaining(), is(false));
+                assertThat(Base32Codec.parse(buffer.flip()), is(id));
+                assertThat(buffer.hasRemaining(), is(false));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Crockford aliases are accepted")
+    void aliases() {
+        assertThat(Base32Codec.parse("4OOOOOOOOOOOOIiLl00000000O"), is(Base32Codec.parse(
+                "40000000000001111000000000")));
+    }
+
+    @Test
+    @DisplayName("Invalid forms are rejected at the first invalid character")
+    void invalid() {
+        var valid = Base32Codec.toString(new UniqueId(1, 2, 3));
+        var errors = List.of(List.of(valid.substring(1), 25), List.of(valid + "0", 26),
+                List.of("8" + valid.substring(1), 0), List.of(valid.substring(0, 5) + "U" + valid.substring(6), 5),
+                List.of(valid.substring(0, 7) + "é" + valid.substring(8), 7), List.of("", 0));
+        for (var error : errors) {
+            var text = (String) error.get(0);
+            var e = assertThrows(UniqueIdParseException.class, () -> Base32Codec.parse(text));
+            assertThat(text, e.errorIndex(), is(error.get(1)));
+            var buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+            e = assertThrows(UniqueIdParseException.class, () -> Base32Codec.parse(buffer));
+            assertThat(text, e.errorIndex(), is(error.get(1)));
+            assertThat(buffer.position(), is(0));
+        }
+        assertThrows(BufferOverflowException.class, () -> Base32Codec.write(new UniqueId(1, 2, 3),
+                ByteBuffer.allocate(25)));
+        assertThrows(IllegalArgumentException.class, () -> Base32Codec.toString(new UniqueId(1, 1L << 47, 0)));
+    }
+}
@@ -0,0 +1,85 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchingListenerTest {
+
+    @Test
+    @DisplayName("Ids are flushed in batches of the configured size")
+    void flushOnSize() {
+        var batches = new ArrayList<List<UniqueId>>();
+        var listener = BatchingListener.builder().delegate(collect(batches)).batchSize(3)
+                .linger(Duration.ofHours(1)).build();
+        var generator = UUIDGenerator.builder().listener(listener).machineAddress(1L).build();
+        var ids = new ArrayList<UniqueId>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(generator.generate());
+        }
+        assertThat(batches, is(List.of(ids.subList(0, 3), ids.subList(3, 6))));
+        listener.close();
+        assertThat(batches.get(2), is(ids.subList(6, 7)));
+    }
+
+    @Test
+    @DisplayName("Generated batches are copied in bulk across batch boundaries")
+    void bulk() {
+        var batches = new ArrayList<List<UniqueId>>();
+        var listener = BatchingListener.builder().delegate(collect(batches)).batchSize(4)
+                .linger(Duration.ofHours(1)).build();
+        var generator = UUIDGenerator.builder().listener(listener).machineAddress(1L).build();
+        var first = generator.generate();
+        var packed = new long[2 * 10];
+        generator.generate(packed, 0, 10);
+        listener.close();
+        assertThat(batches.size(), is(3));
+        assertThat(batches.get(0).get(0), is(first));
+        assertThat(batches.get(2).get(2), is(UniqueId.fromBits(packed[18], packed[19])));
+    }
+
+    @Test
+    @DisplayName("Partial batches are flushed after the linger time")
+    void flushOnLinger() throws Exception {
+        var flushed = new CountDownLatch(1);
+        var listener = BatchingListener.builder().delegate((packedIds, count) -> flushed.countDown())
+                .batchSize(1000).linger(Duration.ofMillis(10)).build();
+        listener.uniqueIdGenerated(new UniqueId(1, 2, 3));
+        assertThat(flushed.await(5, TimeUnit.SECONDS), is(true));
+        listener.close();
+    }
+
+    @Test
+    @DisplayName("Failed batches are counted and discarded")
+    void failedBatch() {
+        var listener = BatchingListener.builder().delegate((packedIds, count) -> {
+            throw new IllegalStateException();
+        }).batchSize(1).build();
+        listener.uniqueIdGenerated(new UniqueId(1, 2, 3));
+        listener.uniqueIdGenerated(new UniqueId(1, 2, 4));
+        assertThat(listener.failedBatches(), is(2L));
+        listener.close();
+        assertThrows(IllegalStateException.class, () -> listener.uniqueIdGenerated(new UniqueId(1, 2, 5)));
+    }
+
+    private static BatchListener collect(List<List<UniqueId>> batches) {
+        return (packedIds, count) -> {
+            var batch = new ArrayList<UniqueId>();
+            for (int i = 0; i < count; i++) {
+                batch.add(UniqueId.fromBits(packedIds[2 * i], packedIds[2 * i + 1]));
+            }
+            batches.add(Collections.unmodifiableList(batch));
+        };
+    }
+}
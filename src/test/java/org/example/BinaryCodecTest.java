@@ -0,0 +1,113 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryCodecTest {
+
+    private static final List<UniqueId> EXTREMES = List.of(new UniqueId(Long.MIN_VALUE, Long.MAX_VALUE,
+            Integer.MIN_VALUE), new UniqueId(Long.MAX_VALUE, Long.MIN_VALUE, Integer.MAX_VALUE), new UniqueId(0, 0, 0),
+            new UniqueId(0, 0, 0), new UniqueId(-1, -1, -1));
+
+    private static List<UniqueId> roundTrip(List<UniqueId> ids, int bufferSize) {
+        var encoder = new BinaryCodec.Encoder();
+        var decoder = new BinaryCodec.Decoder();
+        var buffer = ByteBuffer.allocate(bufferSize);
+        var decoded = new ArrayList<UniqueId>();
+        for (var id : ids) {
+            if (!encoder.encode(id, buffer)) {
+                buffer.flip();
+                for (UniqueId next; (next = decoder.decode(buffer)) != null; ) {
+                    decoded.add(next);
+                }
+                buffer.compact();
+                assertThat(encoder.encode(id, buffer), is(true));
+            }
+        }
+        buffer.flip();
+        for (UniqueId next; (next = decoder.decode(buffer)) != null; ) {
+            decoded.add(next);
+        }
+        return decoded;
+    }
+
+    @Test
+    @DisplayName("Arbitrary ids round-trip, including through a buffer too small for a whole id")
+    void roundTrips() {
+        var ids = new ArrayList<>(PackedIdsTest.IDS);
+        ids.addAll(EXTREMES);
+        assertThat(roundTrip(ids, 1024), is(ids));
+        assertThat(roundTrip(ids, BinaryCodec.MAX_ENCODED_LENGTH), is(ids));
+    }
+
+    @Test
+    @DisplayName("Generated ids take a few bytes each")
+    void compact() {
+        var count = 10000;
+        var packed = new long[2 * count];
+        UUIDGenerator.builder().machineAddress(0x123456789ABL).build().generate(packed, 0, count);
+        var buffer = ByteBuffer.allocate(count * BinaryCodec.MAX_ENCODED_LENGTH);
+        assertThat(new BinaryCodec.Encoder().encode(packed, 0, count, buffer), is(count));
+        assertThat(buffer.position(), is(lessThan(4 * count)));
+        buffer.flip();
+        var decoded = new long[2 * count];
+        assertThat(new BinaryCodec.Decoder().decode(buffer, decoded, 0, count), is(count));
+        assertThat(decoded, is(packed));
+        assertThat(buffer.hasRemaining(), is(false));
+    }
+
+    @Test
+    @DisplayName("Full buffers and truncated input leave the codec unchanged")
+    void partial() {
+        var encoder = new BinaryCodec.Encoder();
+        var id = new UniqueId(1L << 60, -(1L << 40), 7);
+        var small = ByteBuffer.allocate(5);
+        assertThat(encoder.encode(id, small), is(false));
+        assertThat(small.position(), is(0));
+        var buffer = ByteBuffer.allocate(64);
+        assertThat(encoder.encode(id, buffer), is(true));
+        var length = buffer.position();
+        assertThat(length, is(BinaryCodec.varintLength(1L << 61) + 1 + BinaryCodec.varintLength((1L << 41) - 1)));
+        buffer.flip();
+        var decoder = new BinaryCodec.Decoder();
+        for (int limit = 0; limit < length; limit++) {
+            buffer.limit(limit);
+            assertThat(decoder.decode(buffer), is(nullValue()));
+            assertThat(buffer.position(), is(0));
+        }
+        buffer.limit(length);
+        assertThat(decoder.decode(buffer), is(id));
+    }
+
+    @Test
+    @DisplayName("Reset starts an independent stream")
+    void reset() {
+        var encoder = new BinaryCodec.Encoder();
+        var first = ByteBuffer.allocate(64);
+        var second = ByteBuffer.allocate(64);
+        encoder.encode(new UniqueId(100, 5, 1), first);
+        encoder.reset();
+        encoder.encode(new UniqueId(200, 5, 2), second);
+        assertThat(new BinaryCodec.Decoder().decode(second.flip()), is(new UniqueId(200, 5, 2)));
+    }
+
+    @Test
+    @DisplayName("Invalid encodings are rejected")
+    void invalid() {
+        var noMachine = ByteBuffer.wrap(new byte[]{0, 0});
+        assertThrows(IllegalArgumentException.class, () -> new BinaryCodec.Decoder().decode(noMachine));
+        var overflow = ByteBuffer.wrap(new byte[]{-1, -1, -1, -1, -1, -1, -1, -1, -1, 2, 1, 0});
+        assertThrows(IllegalArgumentException.class, () -> new BinaryCodec.Decoder().decode(overflow));
+        var wideSequence = ByteBuffer.wrap(new byte[]{0, -1, -1, -1, -1, 127, 0});
+        assertThrows(IllegalArgumentException.class, () -> new BinaryCodec.Decoder().decode(wideSequence));
+    }
+}
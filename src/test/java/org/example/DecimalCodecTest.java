@@ -0,0 +1,116 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DecimalCodecTest {
+
+    static List<UniqueId> ids() {
+        var ids = new ArrayList<>(List.of(new UniqueId(0, 0, 0), new UniqueId(9, 10, 99),
+                new UniqueId(100, -1, -10), new UniqueId(Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE),
+                new UniqueId(Long.MAX_VALUE, Long.MIN_VALUE, Integer.MAX_VALUE)));
+        var random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            ids.add(new UniqueId(random.nextLong() >> random.nextInt(64), random.nextLong() >> random.nextInt(64),
+                    random.nextInt() >> random.nextInt(32)));
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Encoded form matches String.format")
+    void matchesFormat() {
+        for (var id : ids()) {
+            var expected = String.format("%d-%d-%d", id.hundredNanos(), id.machineAddress(), id.sequenceNumber());
+            assertThat(id.toString(), is(expected));
+            assertThat(id.encodedLength(), is(expected.length()));
+            assertThat(id.appendTo(new StringBuilder("x")).toString(), is("x" + expected));
+
+            var bytes = new byte[expected.length() + 2];
+            assertThat(id.writeTo(bytes, 1), is(expected.length() + 1));
+            assertThat(new String(bytes, 1, expected.length(), StandardCharsets.US_ASCII), is(expected));
+        }
+    }
+
+    @Test
+    @DisplayName("Encoded form is written at the position of heap and direct buffers")
+    void byteBuffers() {
+        for (var buffer : List.of(ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64))) {
+            var id = new UniqueId(16_000_000_000_000_000L, -42, 7);
+            buffer.put((byte) 'x');
+            id.writeTo(buffer);
+            buffer.flip();
+            assertThat(StandardCharsets.US_ASCII.decode(buffer).toString(), is("x" + id));
+        }
+    }
+
+    @Test
+    @DisplayName("Writing past the end of the destination fails without writing")
+    void overflow() {
+        var id = new UniqueId(100, 200, 300);
+        assertThrows(IndexOutOfBoundsException.class, () -> id.writeTo(new byte[10], 1));
+        assertThrows(BufferOverflowException.class, () -> id.writeTo(ByteBuffer.allocate(10)));
+    }
+
+    @Test
+    @DisplayName("Parsing inverts the encoded form")
+    void parseRoundTrip() {
+        for (var id : ids()) {
+            assertThat(UniqueId.parse(id.toString()), is(id));
+            assertThat(UniqueId.parse(new StringBuilder(id.toString())), is(id));
+            var buffer = ByteBuffer.allocateDirect(64);
+            id.writeTo(buffer);
+            buffer.flip();
+            assertThat(UniqueId.parse(buffer), is(id));
+            assertThat(buffer.remaining(), is(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Parsing reports the index of the first invalid character")
+    void parseErrors() {
+        assertThat(parseError("1-2"), is(3));
+        assertThat(parseError("1-2-"), is(4));
+        assertThat(parseError("1-2-3-"), is(5));
+        assertThat(parseError("1-2-3 "), is(5));
+        assertThat(parseError("1-+2-3"), is(2));
+        assertThat(parseError("1-02-3"), is(2));
+        assertThat(parseError("1--0-3"), is(3));
+        assertThat(parseError("1-2-x"), is(4));
+        assertThat(parseError(""), is(0));
+        assertThat(parseError("9223372036854775808-2-3"), is(18));
+        assertThat(parseError("1-2-2147483648"), is(13));
+        assertThat(UniqueId.parse("-9223372036854775808--1--2147483648"),
+                is(new UniqueId(Long.MIN_VALUE, -1, Integer.MIN_VALUE)));
+    }
+
+    @Test
+    @DisplayName("Parsing a buffer leaves its position unchanged on failure")
+    void parseBufferError() {
+        var buffer = ByteBuffer.wrap("xx1-2-".getBytes(StandardCharsets.US_ASCII));
+        buffer.position(2);
+        var error = assertThrows(UniqueIdParseException.class, () -> UniqueId.parse(buffer));
+        assertThat(error.errorIndex(), is(4));
+        assertThat(buffer.position(), is(2));
+    }
+
+    private static int parseError(String text) {
+        var error = assertThrows(UniqueIdParseException.class, () -> UniqueId.parse(text));
+        var bufferError = assertThrows(UniqueIdParseException.class,
+                () -> UniqueId.parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII))));
+        assertThat(bufferError.errorIndex(), is(error.errorIndex()));
+        return error.errorIndex();
+    }
+}
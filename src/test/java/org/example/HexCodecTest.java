@@ -0,0 +1,87 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HexCodecTest {
+
+    @Test
+    @DisplayName("Matches UUID.toString of the packed bits")
+    void matchesUuid() {
+        assertThat(HexCodec.toString(new UniqueId(0, 2, 3)), is("00000000-0000-0000-0000-000000020003"));
+        var random = new Random(42);
+        var bytes = new byte[HexCodec.ENCODED_LENGTH];
+        for (int i = 0; i < 10_000; i++) {
+            var msb = random.nextLong();
+            var lsb = random.nextLong();
+            HexCodec.write(msb, lsb, bytes, 0);
+            var expected = new UUID(msb, lsb).toString();
+            assertThat(new String(bytes, StandardCharsets.US_ASCII), is(expected));
+            var packed = new long[2];
+            HexCodec.parse(expected.toUpperCase(), packed, 0);
+            assertThat(packed[0], is(msb));
+            assertThat(packed[1], is(lsb));
+        }
+    }
+
+    @Test
+    @DisplayName("All forms round-trip")
+    void roundTrip() {
+        for (var id : PackedIdsTest.IDS) {
+            var text = HexCodec.toString(id);
+            assertThat(text, is(new UUID(id.mostSignificantBits(), id.leastSignificantBits()).toString()));
+            assertThat(HexCodec.parse(text), is(id));
+            assertThat(HexCodec.append(id, new StringBuilder("x")).toString(), is("x" + text));
+            var bytes = new byte[38];
+            assertThat(HexCodec.write(id, bytes, 1), is(37));
+            assertThat(new String(bytes, 1, 36, StandardCharsets.US_ASCII), is(text));
+            var packed = new long[3];
+            HexCodec.parse(text, packed, 1);
+            assertThat(UniqueId.fromBits(packed[1], packed[2]), is(id));
+            for (var buffer : List.of(ByteBuffer.allocate(37).position(1), ByteBuffer.allocateDirect(37).position(1))) {
+                HexCodec.write(id, buffer);
+                assertThat(buffer.hasRemaining(), is(false));
+                assertThat(HexCodec.parse(buffer.position(1)), is(id));
+                assertThat(buffer.hasRemaining(), is(false));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid forms are rejected at the first invalid character")
+    void invalid() {
+        var valid = HexCodec.toString(new UniqueId(1, 2, 3));
+        var errors = List.of(List.of(valid.substring(1), 7), List.of(valid.substring(0, 35), 35),
+                List.of(valid.substring(0, 8), 8), List.of(valid + "0", 36),
+                List.of(valid.substring(0, 13) + "0" + valid.substring(14), 13),
+                List.of(valid.substring(0, 5) + "g" + valid.substring(6), 5),
+                List.of(valid.substring(0, 30) + "é" + valid.substring(31), 30),
+                List.of(valid.substring(0, 30) + "İ" + valid.substring(31), 30), List.of("", 0));
+        for (var error : errors) {
+            var text = (String) error.get(0);
+            var e = assertThrows(UniqueIdParseException.class, () -> HexCodec.parse(text));
+            assertThat(text, e.errorIndex(), is(error.get(1)));
+            if (text.chars().allMatch(c -> c < 256)) {
+                var buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+                e = assertThrows(UniqueIdParseException.class, () -> HexCodec.parse(buffer));
+                assertThat(text, e.errorIndex(), is(error.get(1)));
+                assertThat(buffer.position(), is(0));
+            }
+        }
+        assertThrows(BufferOverflowException.class, () -> HexCodec.write(new UniqueId(1, 2, 3),
+                ByteBuffer.allocate(35)));
+        assertThrows(IllegalArgumentException.class, () -> HexCodec.toString(new UniqueId(1, 1L << 47, 0)));
+    }
+}
@@ -0,0 +1,150 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class IdPublisherTest {
+
+    /**
+     * Records the ids it receives, and runs onNext callbacks with the subscription.
+     */
+    static class RecordingSubscriber implements Flow.Subscriber<UniqueId> {
+        final List<UniqueId> ids = new ArrayList<>();
+        final List<Throwable> errors = new ArrayList<>();
+        final BiConsumer<Flow.Subscription, Integer> onNext;
+        Flow.Subscription subscription;
+
+        RecordingSubscriber(BiConsumer<Flow.Subscription, Integer> onNext) {
+            this.onNext = onNext;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(UniqueId item) {
+            ids.add(item);
+            onNext.accept(subscription, ids.size());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            errors.add(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            throw new AssertionError("The stream is endless");
+        }
+    }
+
+    @Test
+    @DisplayName("Emits exactly the requested number of increasing ids")
+    void demand() {
+        var publisher = IdPublisher.builder().generator(UUIDGenerator.make()).batchSize(7).build();
+        var subscriber = new RecordingSubscriber((subscription, count) -> {
+        });
+        publisher.subscribe(subscriber);
+        assertThat(subscriber.ids, is(empty()));
+        subscriber.subscription.request(3);
+        assertThat(subscriber.ids.size(), is(3));
+        subscriber.subscription.request(20);
+        assertThat(subscriber.ids.size(), is(23));
+        for (int i = 1; i < subscriber.ids.size(); i++) {
+            assertThat(subscriber.ids.get(i), is(greaterThan(subscriber.ids.get(i - 1))));
+        }
+        assertThat(subscriber.errors, is(empty()));
+    }
+
+    @Test
+    @DisplayName("Requests from onNext are served iteratively, and cancellation stops emission")
+    void reentrant() {
+        var subscriber = new RecordingSubscriber((subscription, count) -> {
+            if (count == 100000) {
+                subscription.cancel();
+            } else {
+                subscription.request(1);
+            }
+        });
+        IdPublisher.of(UUIDGenerator.make()).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        assertThat(subscriber.ids.size(), is(100000));
+        subscriber.subscription.request(5);
+        assertThat(subscriber.ids.size(), is(100000));
+    }
+
+    @Test
+    @DisplayName("Unbounded demand emits until cancelled")
+    void unbounded() {
+        var subscriber = new RecordingSubscriber((subscription, count) -> {
+            if (count == 1000) {
+                subscription.cancel();
+            }
+        });
+        IdPublisher.of(UUIDGenerator.make()).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertThat(subscriber.ids.size(), is(1000));
+    }
+
+    @Test
+    @DisplayName("Non-positive requests signal onError")
+    void invalidRequest() {
+        var subscriber = new RecordingSubscriber((subscription, count) -> {
+        });
+        IdPublisher.of(UUIDGenerator.make()).subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertThat(subscriber.errors.size(), is(1));
+        assertThat(subscriber.errors.get(0), is(instanceOf(IllegalArgumentException.class)));
+        subscriber.subscription.request(1);
+        assertThat(subscriber.ids, is(empty()));
+    }
+
+    @Test
+    @DisplayName("Concurrent requests are all served, one onNext at a time")
+    void concurrentRequests() throws Exception {
+        var emitting = new AtomicBoolean();
+        var overlaps = new AtomicInteger();
+        var subscriber = new RecordingSubscriber((subscription, count) -> {
+        }) {
+            @Override
+            public void onNext(UniqueId item) {
+                if (!emitting.compareAndSet(false, true)) {
+                    overlaps.incrementAndGet();
+                }
+                super.onNext(item);
+                emitting.set(false);
+            }
+        };
+        IdPublisher.of(UUIDGenerator.make()).subscribe(subscriber);
+        var threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            var thread = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    subscriber.subscription.request(3);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertThat(overlaps.get(), is(0));
+        assertThat(subscriber.ids.size(), is(120000));
+        assertThat(subscriber.ids.stream().distinct().count(), is(120000L));
+    }
+}
@@ -0,0 +1,97 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class IdReservoirTest {
+
+    @Test
+    @DisplayName("Ids are served in order from the pre-filled reservoir")
+    void servesPreGenerated() throws Exception {
+        var time = new AtomicLong(1000);
+        var generator = UUIDGenerator.builder().timeSource(time::get).machineAddress(1L).build();
+        try (var reservoir = IdReservoir.builder().generator(generator).capacity(64)
+                .maxStaleness(Duration.ofSeconds(1)).build()) {
+            awaitFull(reservoir, 64);
+            var previous = reservoir.next();
+            for (int i = 0; i < 31; i++) {
+                var id = reservoir.next();
+                assertThat(id, is(greaterThan(previous)));
+                previous = id;
+            }
+            assertThat(reservoir.misses(), is(0L));
+        }
+    }
+
+    @Test
+    @DisplayName("Stale ids are discarded rather than served")
+    void discardsStale() throws Exception {
+        var time = new AtomicLong(1000);
+        var generator = UUIDGenerator.builder().timeSource(time::get).machineAddress(1L).build();
+        try (var reservoir = IdReservoir.builder().generator(generator).capacity(64)
+                .maxStaleness(Duration.ofMillis(1)).build()) {
+            awaitFull(reservoir, 64);
+            time.addAndGet(1_000_000);
+            var id = reservoir.next();
+            assertThat(id.hundredNanos(), is(greaterThanOrEqualTo(time.get() - 10000)));
+            assertThat(reservoir.discarded(), is(greaterThan(0L)));
+        }
+    }
+
+    @Test
+    @DisplayName("Ids are generated inline when the reservoir is closed and empty")
+    void fallsBackInline() throws Exception {
+        var generator = UUIDGenerator.builder().machineAddress(1L).build();
+        var reservoir = IdReservoir.builder().generator(generator).capacity(4).lowWatermark(1).build();
+        reservoir.close();
+        var ids = new HashSet<UniqueId>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(reservoir.next());
+        }
+        assertThat(ids.size(), is(10));
+        assertThat(reservoir.misses(), is(greaterThan(0L)));
+    }
+
+    @Test
+    @DisplayName("Concurrent consumers never receive the same id")
+    void concurrentUniqueness() throws Exception {
+        var generator = UUIDGenerator.builder().machineAddress(1L).build();
+        try (var reservoir = IdReservoir.builder().generator(generator).capacity(256).build()) {
+            UUIDGeneratorTest.assertUniqueAcrossThreads(() -> {
+                var packed = new long[2];
+                reservoir.next(packed, 0);
+                return UniqueId.fromBits(packed[0], packed[1]);
+            }, 4, 10000);
+        }
+    }
+
+    @Test
+    @DisplayName("Every pre-generated id is served or kept, even when offers race with consumers")
+    void noDroppedIds() throws Exception {
+        var listened = new AtomicLong();
+        var generator = UUIDGenerator.builder().machineAddress(1L).listener(id -> listened.incrementAndGet()).build();
+        // Refilled whenever not full, so that the reservoir is full once the consumers stop.
+        try (var reservoir = IdReservoir.builder().generator(generator).capacity(4).lowWatermark(4)
+                .maxStaleness(Duration.ofHours(1)).build()) {
+            UUIDGeneratorTest.assertUniqueAcrossThreads(reservoir::next, 4, 10000);
+            awaitFull(reservoir, 4);
+            assertThat(reservoir.discarded(), is(0L));
+            assertThat(listened.get(), is(40000L + 4));
+        }
+    }
+
+    private static void awaitFull(IdReservoir reservoir, int capacity) throws InterruptedException {
+        for (int i = 0; i < 5000 && reservoir.size() < capacity; i++) {
+            Thread.sleep(1);
+        }
+        assertThat(reservoir.size(), is(capacity));
+    }
+}
@@ -0,0 +1,130 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MachineIdentityTest {
+
+    @Test
+    @DisplayName("Resolves the provider once and caches the address")
+    void cached() {
+        var calls = new AtomicInteger();
+        var identity = new MachineIdentity(() -> 1000L + calls.incrementAndGet());
+        assertThat(identity.machineAddress(), is(1001L));
+        assertThat(identity.machineAddress(), is(1001L));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    @DisplayName("Background resolution is shared with later callers")
+    void async() throws Exception {
+        var calls = new AtomicInteger();
+        var identity = new MachineIdentity(() -> {
+            calls.incrementAndGet();
+            return 42L;
+        });
+        assertThat(identity.resolveAsync().get(5, TimeUnit.SECONDS), is(42L));
+        assertThat(identity.machineAddress(), is(42L));
+        assertThat(identity.resolveAsync().getNow(null), is(42L));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    @DisplayName("Provider failures are reported and cached")
+    void failure() {
+        var calls = new AtomicInteger();
+        var identity = new MachineIdentity(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        });
+        var e = assertThrows(IllegalStateException.class, identity::machineAddress);
+        assertThat(e.getCause().getMessage(), is("boom"));
+        assertThrows(IllegalStateException.class, identity::machineAddress);
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    @DisplayName("Generators without a machine address share the process identity")
+    void process() {
+        assertThat(UUIDGenerator.make().machineAddress, is(MachineIdentity.process().machineAddress()));
+        assertThat(UUIDGenerator.make().machineAddress, is(UUIDGenerator.make().machineAddress));
+        assertThrows(IllegalStateException.class, () -> MachineIdentity.setProcessProvider(() -> 1L));
+    }
+
+    @Test
+    @DisplayName("File provider parses decimal and hexadecimal addresses")
+    void file(@TempDir Path directory) throws Exception {
+        var path = directory.resolve("machine-address");
+        Files.writeString(path, "-12345\n");
+        assertThat(MachineAddressProvider.file(path).machineAddress(), is(-12345L));
+        Files.writeString(path, "0xabcdef");
+        assertThat(MachineAddressProvider.file(path).machineAddress(), is(0xabcdefL));
+        Files.writeString(path, Long.toString(1L << 47));
+        assertThrows(IllegalArgumentException.class, () -> MachineAddressProvider.file(path).machineAddress());
+    }
+
+    @Test
+    @DisplayName("Hostname hash and random addresses fit in 48 bits")
+    void packable() throws Exception {
+        var hash = MachineAddressProvider.hostnameHash().machineAddress();
+        assertThat(hash, is(MachineAddressProvider.hostnameHash().machineAddress()));
+        assertThat(PackedIds.isPackable(hash, 0), is(true));
+        for (int i = 0; i < 100; i++) {
+            assertThat(PackedIds.isPackable(MachineAddressProvider.random().machineAddress(), 0), is(true));
+        }
+    }
+
+    @Test
+    @DisplayName("First successful provider wins")
+    void firstOf() throws Exception {
+        MachineAddressProvider failing = () -> {
+            throw new IllegalStateException("unavailable");
+        };
+        assertThat(MachineAddressProvider.firstOf(failing, () -> 7L, () -> 8L).machineAddress(), is(7L));
+        var e = assertThrows(IllegalStateException.class,
+                () -> MachineAddressProvider.firstOf(failing, failing).machineAddress());
+        assertThat(e.getSuppressed().length, is(2));
+        assertThrows(IllegalStateException.class,
+                () -> MachineAddressProvider.environment("UUID_GENERATOR_TEST_UNSET_VARIABLE").machineAddress());
+    }
+
+    @Test
+    @DisplayName("A set but malformed environment variable fails instead of falling back")
+    void malformedEnvironment() {
+        // PATH is set in every test environment, and is not a machine address.
+        var malformed = MachineAddressProvider.environment("PATH");
+        assertThrows(NumberFormatException.class, malformed::machineAddress);
+        assertThrows(NumberFormatException.class,
+                () -> MachineAddressProvider.firstOf(malformed, () -> 7L).machineAddress());
+        var identity = new MachineIdentity(MachineAddressProvider.firstOf(malformed, MachineAddressProvider.random()));
+        var e = assertThrows(IllegalStateException.class, identity::machineAddress);
+        assertThat(e.getCause(), is(instanceOf(NumberFormatException.class)));
+        var unset = MachineAddressProvider.environment("UUID_GENERATOR_TEST_UNSET_VARIABLE");
+        assertThat(new MachineIdentity(MachineAddressProvider.firstOf(unset, () -> 7L)).machineAddress(), is(7L));
+    }
+
+    @Test
+    @DisplayName("Hardware addresses wider than 48 bits are skipped, falling back to the next strategy")
+    void wideHardwareAddress() throws Exception {
+        var eui64 = new byte[]{1, 2, 3, 4, 5, 6, 7, 8};
+        var infiniBand = new byte[20];
+        var mac = new byte[]{(byte) 0xA4, 0, 0, 0, 0, 1};
+        assertThat(MachineAddressProvider.mac48(Arrays.asList(null, eui64, mac)), is(0xFFFF_A400_0000_0001L));
+        assertThrows(IllegalStateException.class, () -> MachineAddressProvider.mac48(List.of(eui64, infiniBand)));
+        var identity = new MachineIdentity(MachineAddressProvider.firstOf(
+                () -> MachineAddressProvider.mac48(List.of(eui64, infiniBand)), MachineAddressProvider.random()));
+        assertThat(PackedIds.isPackable(identity.machineAddress(), 0), is(true));
+    }
+}
@@ -0,0 +1,111 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NodeLeaseTest {
+
+    @TempDir
+    Path directory;
+
+    private NodeLease.NodeLeaseBuilder lease() {
+        return NodeLease.builder().path(directory.resolve("leases")).hostAddress(0x123L).slotBits(4);
+    }
+
+    @Test
+    @DisplayName("Concurrent leases get distinct slots and machine addresses")
+    void distinct() throws Exception {
+        var executor = Executors.newFixedThreadPool(8);
+        var futures = new ArrayList<Future<NodeLease>>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(executor.submit(() -> lease().build()));
+        }
+        var addresses = new HashSet<Long>();
+        var slots = new HashSet<Integer>();
+        for (var future : futures) {
+            var lease = future.get();
+            addresses.add(lease.machineAddress());
+            slots.add(lease.slot());
+            assertThat(lease.machineAddress() & 0xF, is((long) lease.slot()));
+            assertThat(lease.machineAddress() >> 4, is(0x123L));
+            assertThat(PackedIds.isPackable(lease.machineAddress(), 0), is(true));
+        }
+        executor.shutdown();
+        assertThat(addresses.size(), is(16));
+        assertThat(slots.size(), is(16));
+        assertThrows(IllegalStateException.class, () -> lease().build());
+        for (var future : futures) {
+            future.get().close();
+        }
+    }
+
+    @Test
+    @DisplayName("Closing a lease frees its slot")
+    void close() throws Exception {
+        var first = lease().build();
+        var second = lease().build();
+        assertThat(second.slot(), is(first.slot() + 1));
+        first.close();
+        assertThat(first.isValid(), is(false));
+        var third = lease().build();
+        assertThat(third.slot(), is(first.slot()));
+        second.close();
+        third.close();
+    }
+
+    @Test
+    @DisplayName("Expired leases are taken over, and the previous owner notices on renewal")
+    void expiry() throws Exception {
+        var clock = new UUIDGeneratorTest.FakeClock();
+        // Renewals are driven by the test rather than a heartbeat thread.
+        ThreadFactory noHeartbeat = runnable -> new Thread(() -> {
+        });
+        var first = lease().clock(clock).timeToLive(Duration.ofMillis(1)).threadFactory(noHeartbeat).build();
+        assertThat(first.renew(), is(true));
+        clock.hundredMillis += 100000;
+        var second = lease().clock(clock).timeToLive(Duration.ofMillis(1)).threadFactory(noHeartbeat).build();
+        assertThat(second.slot(), is(first.slot()));
+        assertThat(first.isValid(), is(true));
+        assertThat(first.renew(), is(false));
+        assertThat(first.isValid(), is(false));
+        assertThat(second.renew(), is(true));
+        first.close();
+        assertThat(second.renew(), is(true));
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Tables with a different layout are rejected")
+    void layout() throws Exception {
+        try (var lease = lease().build()) {
+            assertThrows(IllegalStateException.class, () -> lease().slotBits(5).build());
+            assertThat(lease.renew(), is(true));
+        }
+        assertThrows(IllegalArgumentException.class, () -> lease().slotBits(0).build());
+        assertThrows(IllegalArgumentException.class, () -> lease().slotBits(17).build());
+    }
+
+    @Test
+    @DisplayName("Default host address yields a packable machine address")
+    void defaults() throws Exception {
+        try (var lease = NodeLease.acquire(directory.resolve("default"))) {
+            assertThat(lease.slot(), is(0));
+            assertThat(PackedIds.isPackable(lease.machineAddress(), 0), is(true));
+            assertThat(UUIDGenerator.builder().machineAddress(lease.machineAddress()).build().generate()
+                    .machineAddress(), is(lease.machineAddress()));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedIdHashMapTest {
+
+    @Test
+    @DisplayName("Puts, gets and removes values, including for the all-zero id")
+    void basics() {
+        var map = new PackedIdHashMap<String>();
+        for (var id : PackedIdsTest.IDS) {
+            assertThat(map.put(id, id.toString()), is(nullValue()));
+        }
+        var zero = new UniqueId(0, 0, 0);
+        assertThat(map.put(zero, "zero"), is("0-0-0"));
+        assertThat(map.get(zero), is("zero"));
+        assertThat(map.size(), is(PackedIdsTest.IDS.size()));
+        assertThat(map.get(new UniqueId(0, 1L << 47, 0)), is(nullValue()));
+        assertThrows(NullPointerException.class, () -> map.put(zero, null));
+        assertThat(map.remove(zero), is("zero"));
+        assertThat(map.containsKey(0, 0), is(false));
+        assertThat(map.remove(zero), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("Matches HashMap under random puts and removes")
+    void randomized() {
+        var random = new Random(2);
+        var map = new PackedIdHashMap<Integer>(0);
+        var expected = new HashMap<UniqueId, Integer>();
+        for (int i = 0; i < 200000; i++) {
+            var id = new UniqueId(random.nextInt(64), random.nextInt(4), random.nextInt(64));
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(id), is(expected.remove(id)));
+            } else {
+                assertThat(map.put(id, i), is(expected.put(id, i)));
+            }
+            assertThat(map.size(), is(expected.size()));
+        }
+        var visited = new HashMap<UniqueId, Integer>();
+        map.forEach((msb, lsb, value) -> visited.put(UniqueId.fromBits(msb, lsb), value));
+        assertThat(visited, is(expected));
+        for (var entry : expected.entrySet()) {
+            assertThat(map.get(entry.getKey()), is(entry.getValue()));
+        }
+    }
+}
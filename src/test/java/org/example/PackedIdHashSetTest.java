@@ -0,0 +1,83 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedIdHashSetTest {
+
+    @Test
+    @DisplayName("Adds, finds and removes ids, including the all-zero id")
+    void basics() {
+        var set = new PackedIdHashSet();
+        for (var id : PackedIdsTest.IDS) {
+            assertThat(set.add(id), is(true));
+            assertThat(set.add(id), is(false));
+        }
+        assertThat(set.size(), is(PackedIdsTest.IDS.size()));
+        for (var id : PackedIdsTest.IDS) {
+            assertThat(set.contains(id), is(true));
+        }
+        assertThat(set.contains(new UniqueId(0, 0, 1)), is(false));
+        assertThat(set.contains(new UniqueId(0, 1L << 47, 0)), is(false));
+        assertThrows(IllegalArgumentException.class, () -> set.add(new UniqueId(0, 1L << 47, 0)));
+        for (var id : PackedIdsTest.IDS) {
+            assertThat(set.remove(id), is(true));
+            assertThat(set.remove(id), is(false));
+            assertThat(set.contains(id), is(false));
+        }
+        assertThat(set.isEmpty(), is(true));
+    }
+
+    @Test
+    @DisplayName("Matches HashSet under random adds and removes")
+    void randomized() {
+        var random = new Random(1);
+        var set = new PackedIdHashSet(0);
+        var expected = new HashSet<UniqueId>();
+        for (int i = 0; i < 200000; i++) {
+            // A narrow key space, so that probe runs collide, wrap around and get removed from.
+            var id = new UniqueId(random.nextInt(64), random.nextInt(4), random.nextInt(64));
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(id), is(expected.remove(id)));
+            } else {
+                assertThat(set.add(id), is(expected.add(id)));
+            }
+            assertThat(set.size(), is(expected.size()));
+        }
+        for (var id : expected) {
+            assertThat(set.contains(id), is(true));
+        }
+        var visited = new HashSet<UniqueId>();
+        set.forEach((msb, lsb) -> visited.add(UniqueId.fromBits(msb, lsb)));
+        assertThat(visited, is(expected));
+        set.clear();
+        assertThat(set.size(), is(0));
+        set.forEach((msb, lsb) -> {
+            throw new AssertionError();
+        });
+    }
+
+    @Test
+    @DisplayName("Holds generated ids")
+    void generated() {
+        var count = 100000;
+        var packed = new long[2 * count];
+        UUIDGenerator.builder().machineAddress(7L).build().generate(packed, 0, count);
+        var set = new PackedIdHashSet(count);
+        for (int i = 0; i < count; i++) {
+            assertThat(set.add(packed[2 * i], packed[2 * i + 1]), is(true));
+        }
+        for (int i = 0; i < count; i++) {
+            assertThat(set.contains(packed[2 * i], packed[2 * i + 1]), is(true));
+        }
+        assertThat(set.size(), is(count));
+    }
+}
@@ -0,0 +1,66 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedIdSortedSetTest {
+
+    @Test
+    @DisplayName("Sorts and deduplicates ids in UniqueId order")
+    void sorted() {
+        var ids = new ArrayList<>(PackedIdsTest.IDS);
+        ids.addAll(PackedIdsTest.IDS);
+        Collections.shuffle(ids, new Random(3));
+        var set = PackedIdSortedSet.of(ids);
+        assertThat(set.size(), is(PackedIdsTest.IDS.size()));
+        var visited = new ArrayList<UniqueId>();
+        set.forEach((msb, lsb) -> visited.add(UniqueId.fromBits(msb, lsb)));
+        assertThat(visited, is(new ArrayList<>(new TreeSet<>(PackedIdsTest.IDS))));
+        for (int i = 0; i < set.size(); i++) {
+            assertThat(set.get(i), is(visited.get(i)));
+            assertThat(set.indexOf(set.mostSignificantBits(i), set.leastSignificantBits(i)), is(i));
+        }
+        assertThat(set.contains(new UniqueId(10, 20, 32)), is(false));
+        assertThat(set.indexOf(10, new UniqueId(10, 20, 32).leastSignificantBits()), is(-7));
+        assertThrows(IndexOutOfBoundsException.class, () -> set.get(set.size()));
+    }
+
+    @Test
+    @DisplayName("Ranks ids by time")
+    void rank() {
+        var set = PackedIdSortedSet.of(PackedIdsTest.IDS);
+        assertThat(set.rankOf(Long.MIN_VALUE), is(0));
+        assertThat(set.rankOf(0), is(1));
+        assertThat(set.rankOf(10), is(2));
+        assertThat(set.rankOf(11), is(7));
+        assertThat(set.rankOf(Long.MAX_VALUE), is(8));
+        var range = new ArrayList<UniqueId>();
+        set.forEach(set.rankOf(10), set.rankOf(11), (msb, lsb) -> range.add(UniqueId.fromBits(msb, lsb)));
+        assertThat(range, is(PackedIdsTest.IDS.subList(2, 7)));
+        assertThat(PackedIdSortedSet.of(List.of()).isEmpty(), is(true));
+    }
+
+    @Test
+    @DisplayName("Finds generated ids")
+    void generated() {
+        var count = 10000;
+        var packed = new long[2 * count + 2];
+        UUIDGenerator.builder().machineAddress(7L).build().generate(packed, 2, count);
+        var set = PackedIdSortedSet.of(packed, 2, count);
+        assertThat(set.size(), is(count));
+        for (int i = 0; i < count; i++) {
+            assertThat(set.indexOf(packed[2 + 2 * i], packed[3 + 2 * i]), is(i));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedIdsTest {
+
+    static final List<UniqueId> IDS = List.of(new UniqueId(-5, 3, 1), new UniqueId(0, 0, 0),
+            new UniqueId(10, -(1L << 47), 65535), new UniqueId(10, -1, 0), new UniqueId(10, 20, 30),
+            new UniqueId(10, 20, 31), new UniqueId(10, (1L << 47) - 1, 0), new UniqueId(12, 1, 2),
+            new UniqueId(Long.MAX_VALUE, 0, 0));
+
+    @Test
+    @DisplayName("Packed ids round-trip")
+    void roundTrip() {
+        for (var id : IDS) {
+            assertThat(UniqueId.fromBits(id.mostSignificantBits(), id.leastSignificantBits()), is(id));
+        }
+    }
+
+    @Test
+    @DisplayName("Signed comparison of packed ids matches UniqueId ordering")
+    void ordering() {
+        for (var a : IDS) {
+            for (var b : IDS) {
+                var packed = Long.compare(a.mostSignificantBits(), b.mostSignificantBits());
+                if (packed == 0) {
+                    packed = Long.compare(a.leastSignificantBits(), b.leastSignificantBits());
+                }
+                assertThat(Integer.signum(packed), is(Integer.signum(a.compareTo(b))));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Ids with wide machine addresses or sequence numbers cannot be packed")
+    void unpackable() {
+        assertThrows(IllegalArgumentException.class, () -> new UniqueId(1, 1L << 47, 0).leastSignificantBits());
+        assertThrows(IllegalArgumentException.class, () -> new UniqueId(1, 1, 1 << 16).leastSignificantBits());
+        assertThrows(IllegalArgumentException.class, () -> new UniqueId(1, 1, -1).leastSignificantBits());
+    }
+
+    @Test
+    @DisplayName("Generated ids are packable")
+    void generatedPackable() {
+        var id = UUIDGenerator.make().generate();
+        assertThat(UniqueId.fromBits(id.mostSignificantBits(), id.leastSignificantBits()), is(id));
+    }
+
+    @Test
+    @DisplayName("Packed comparison matches UniqueId ordering")
+    void compare() {
+        for (var a : IDS) {
+            for (var b : IDS) {
+                assertThat(PackedIds.compare(a.mostSignificantBits(), a.leastSignificantBits(),
+                        b.mostSignificantBits(), b.leastSignificantBits()), is(Integer.signum(a.compareTo(b))));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Sorting packed ids matches sorting UniqueIds")
+    void sort() {
+        var random = new Random(42);
+        for (var count : new int[]{0, 1, 2, 15, 16, 17, 1000, 100000}) {
+            var ids = new ArrayList<UniqueId>();
+            for (int i = 0; i < count; i++) {
+                // Few distinct timestamps and machines, so that ties are broken on every field.
+                ids.add(new UniqueId(random.nextInt(100), random.nextInt(5) - 2, random.nextInt(1 << 16)));
+            }
+            assertSortsLike(ids);
+        }
+    }
+
+    @Test
+    @DisplayName("Sorting handles sorted, reversed and constant input")
+    void sortPathological() {
+        var ascending = new ArrayList<UniqueId>();
+        var constant = new ArrayList<UniqueId>();
+        for (int i = 0; i < 50000; i++) {
+            ascending.add(new UniqueId(i, 0, i & 0xFFFF));
+            constant.add(new UniqueId(7, 7, 7));
+        }
+        var descending = new ArrayList<>(ascending);
+        Collections.reverse(descending);
+        assertSortsLike(ascending);
+        assertSortsLike(descending);
+        assertSortsLike(constant);
+    }
+
+    @Test
+    @DisplayName("Sorting only touches the given range")
+    void sortRange() {
+        var packed = new long[]{-1, 3, 0, 2, 1, 5, -1};
+        PackedIds.sort(packed, 1, 2);
+        assertThat(packed, is(new long[]{-1, 2, 1, 3, 0, 5, -1}));
+        assertThrows(IndexOutOfBoundsException.class, () -> PackedIds.sort(packed, 1, 4));
+    }
+
+    private static void assertSortsLike(List<UniqueId> ids) {
+        var packed = new long[2 * ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            packed[2 * i] = ids.get(i).mostSignificantBits();
+            packed[2 * i + 1] = ids.get(i).leastSignificantBits();
+        }
+        PackedIds.sort(packed, 0, ids.size());
+        var sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+        for (int i = 0; i < ids.size(); i++) {
+            assertThat(UniqueId.fromBits(packed[2 * i], packed[2 * i + 1]), is(sorted.get(i)));
+        }
+    }
+}
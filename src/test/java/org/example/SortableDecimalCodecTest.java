@@ -0,0 +1,86 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SortableDecimalCodecTest {
+
+    @Test
+    @DisplayName("Fields are zero-padded, and negative fields offset")
+    void format() {
+        assertThat(SortableDecimalCodec.toString(new UniqueId(1, 2, 3)),
+                is("00000000000000000001-00000000000000000002-00000000003"));
+        assertThat(SortableDecimalCodec.toString(new UniqueId(Long.MAX_VALUE, -1, -1)),
+                is("09223372036854775807--9223372036854775807--2147483647"));
+        assertThat(SortableDecimalCodec.toString(new UniqueId(Long.MIN_VALUE, 0, Integer.MIN_VALUE)),
+                is("-0000000000000000000-00000000000000000000--0000000000"));
+    }
+
+    @Test
+    @DisplayName("String order matches UniqueId order")
+    void ordering() {
+        var ids = DecimalCodecTest.ids();
+        for (var a : ids.subList(0, 200)) {
+            for (var b : ids.subList(0, 200)) {
+                var textA = SortableDecimalCodec.toString(a);
+                var textB = SortableDecimalCodec.toString(b);
+                assertThat(textA.length(), is(SortableDecimalCodec.ENCODED_LENGTH));
+                assertThat(Integer.signum(textA.compareTo(textB)), is(Integer.signum(a.compareTo(b))));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("All forms round-trip")
+    void roundTrip() {
+        for (var id : DecimalCodecTest.ids()) {
+            var text = SortableDecimalCodec.toString(id);
+            assertThat(SortableDecimalCodec.parse(text), is(id));
+            assertThat(SortableDecimalCodec.append(id, new StringBuilder("x")).toString(), is("x" + text));
+            var bytes = new byte[55];
+            assertThat(SortableDecimalCodec.write(id, bytes, 1), is(54));
+            assertThat(new String(bytes, 1, 53, StandardCharsets.US_ASCII), is(text));
+            for (var buffer : List.of(ByteBuffer.allocate(54), ByteBuffer.allocateDirect(54))) {
+                buffer.put((byte) 'x');
+                SortableDecimalCodec.write(id, buffer);
+                buffer.flip().get();
+                assertThat(SortableDecimalCodec.parse(buffer), is(id));
+                assertThat(buffer.hasRemaining(), is(false));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid forms are rejected at the first invalid character")
+    void invalid() {
+        var valid = SortableDecimalCodec.toString(new UniqueId(1, 2, 3));
+        var errors = List.of(List.of(valid.substring(0, 52), 52), List.of(valid + "0", 53),
+                List.of("1" + valid.substring(1), 0), List.of("x" + valid.substring(1), 0),
+                List.of(valid.substring(0, 20) + "+" + valid.substring(21), 20),
+                List.of(valid.substring(0, 5) + "a" + valid.substring(6), 5),
+                List.of("99999999999999999999" + valid.substring(20), 0),
+                List.of("09999999999999999999" + valid.substring(20), 19),
+                List.of(valid.substring(0, 42) + "03000000000", 52), List.of("", 0));
+        for (var error : errors) {
+            var text = (String) error.get(0);
+            var e = assertThrows(UniqueIdParseException.class, () -> SortableDecimalCodec.parse(text));
+            assertThat(text, e.errorIndex(), is(error.get(1)));
+            var buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+            e = assertThrows(UniqueIdParseException.class, () -> SortableDecimalCodec.parse(buffer));
+            assertThat(text, e.errorIndex(), is(error.get(1)));
+            assertThat(buffer.position(), is(0));
+        }
+        assertThrows(BufferOverflowException.class, () -> SortableDecimalCodec.write(new UniqueId(1, 2, 3),
+                ByteBuffer.allocate(52)));
+    }
+}
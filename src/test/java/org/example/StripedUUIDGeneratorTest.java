@@ -0,0 +1,41 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StripedUUIDGeneratorTest {
+
+    @Test
+    @DisplayName("Stripe count is rounded up to a power of two")
+    void roundStripes() {
+        assertThat(StripedUUIDGenerator.builder().stripes(5).machineAddress(1L).build().stripes(), is(8));
+        assertThat(StripedUUIDGenerator.builder().stripes(1).machineAddress(1L).build().stripes(), is(1));
+    }
+
+    @Test
+    @DisplayName("Stripe count must fit in the sequence number")
+    void tooManyStripes() {
+        assertThrows(IllegalArgumentException.class, () -> StripedUUIDGenerator.builder().stripes(257).build());
+    }
+
+    @Test
+    @DisplayName("Stripe index is encoded in the low bits of the sequence number")
+    void stripeInSequenceNumber() {
+        var generator = UUIDGenerator.builder().clock(new UUIDGeneratorTest.FakeClock()).machineAddress(1L)
+                .stripeBits(2).stripe(3).build();
+        assertThat(generator.generate().sequenceNumber(), is(3));
+        assertThat(generator.generate().sequenceNumber(), is(1 << 2 | 3));
+    }
+
+    @Test
+    @DisplayName("Threads on different stripes never receive the same id")
+    void concurrentUniqueness() throws Exception {
+        var generator = StripedUUIDGenerator.builder().clock(new UUIDGeneratorTest.FakeClock()).machineAddress(42L)
+                .stripes(4).build();
+        UUIDGeneratorTest.assertUniqueAcrossThreads(generator::generate, 8, 10000);
+    }
+}
@@ -0,0 +1,54 @@
+package org.example;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimeSourceTest {
+
+    @Test
+    @DisplayName("Monotonic time source tracks the wall clock")
+    void monotonicNearWallClock() {
+        assertThat(TimeSource.monotonic().hundredNanos() / 10000.0, is(closeTo(Instant.now().toEpochMilli(), 5)));
+    }
+
+    @Test
+    @DisplayName("Monotonic time source never goes backwards")
+    void monotonicNonDecreasing() {
+        var timeSource = TimeSource.monotonic();
+        var previous = timeSource.hundredNanos();
+        for (int i = 0; i < 100000; i++) {
+            var now = timeSource.hundredNanos();
+            assertThat(now, is(greaterThanOrEqualTo(previous)));
+            previous = now;
+        }
+    }
+
+    @Test
+    @DisplayName("Clock time source converts instants to hundred nanos")
+    void clock() {
+        var clock = new UUIDGeneratorTest.FakeClock();
+        clock.hundredMillis = 12345;
+        assertThat(TimeSource.of(clock).hundredNanos(), is(12345L));
+    }
+
+    @Test
+    @DisplayName("Generator uses the given time source")
+    void generatorTimeSource() {
+        var generator = UUIDGenerator.builder().timeSource(() -> 777L).machineAddress(1L).build();
+        assertThat(generator.generate().hundredNanos(), is(777L));
+    }
+
+    @Test
+    @DisplayName("Generator rejects both a clock and a time source")
+    void clockAndTimeSource() {
+        assertThrows(IllegalArgumentException.class,
+                () -> UUIDGenerator.builder().clock(Clock.systemUTC()).timeSource(() -> 1L).build());
+    }
+}
@@ -3,14 +3,24 @@ package org.example;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class UUIDGeneratorTest {
 
@@ -88,12 +98,248 @@ class UUIDGeneratorTest {
         assertThat(second.sequenceNumber(), is(0));
     }
 
+    @Test
+    @DisplayName("Sequence number carries into the next hundred nanos when exhausted")
+    void carrySequenceNumber() {
+        var generator = UUIDGenerator.builder().clock(new FakeClock()).build();
+        UUIDGenerator.UniqueId first = generator.generate();
+        UUIDGenerator.UniqueId last = first;
+        for (int i = 0; i < 1 << UUIDGenerator.DEFAULT_SEQUENCE_BITS; i++) {
+            last = generator.generate();
+        }
+        assertThat(last.hundredNanos(), is(first.hundredNanos() + 1));
+        assertThat(last.sequenceNumber(), is(0));
+    }
+
+    @Test
+    @DisplayName("Concurrent callers sharing a generator never receive the same id")
+    void concurrentUniqueness() throws Exception {
+        var generator = UUIDGenerator.builder().clock(new FakeClock()).machineAddress(42L).build();
+        assertUniqueAcrossThreads(generator::generate, 8, 10000);
+    }
+
+    @Test
+    @DisplayName("Batches are consecutive packed ids")
+    void batch() {
+        var generator = UUIDGenerator.builder().clock(new FakeClock()).machineAddress(42L).build();
+        var single = generator.generate();
+        var dest = new long[1 + 2 * 300];
+        generator.generate(dest, 1, 300);
+        var expected = single;
+        for (int i = 0; i < 300; i++) {
+            var id = UUIDGenerator.UniqueId.fromBits(dest[1 + 2 * i], dest[2 + 2 * i]);
+            assertThat(id, is(greaterThan(expected)));
+            expected = id;
+        }
+        assertThat(generator.generate(), is(greaterThan(expected)));
+    }
+
+    @Test
+    @DisplayName("Listener is invoked once per batch, defaulting to once per id")
+    void batchListener() {
+        var log = new ArrayList<UUIDGenerator.UniqueId>();
+        var generator = UUIDGenerator.builder().listener(log::add).machineAddress(42L).build();
+        var dest = new long[6];
+        generator.generate(dest, 0, 3);
+        assertThat(log, is(List.of(UUIDGenerator.UniqueId.fromBits(dest[0], dest[1]),
+                UUIDGenerator.UniqueId.fromBits(dest[2], dest[3]), UUIDGenerator.UniqueId.fromBits(dest[4], dest[5]))));
+
+        var batches = new ArrayList<Integer>();
+        var batchGenerator = UUIDGenerator.builder().machineAddress(42L).listener(new UUIDGenerator.Listener() {
+            @Override
+            public void uniqueIdGenerated(UUIDGenerator.UniqueId uniqueId) {
+                throw new AssertionError("Not invoked for batches");
+            }
+
+            @Override
+            public void uniqueIdsGenerated(long[] packedIds, int offset, int count) {
+                batches.add(count);
+            }
+        }).build();
+        batchGenerator.generate(dest, 0, 3);
+        assertThat(batches, is(List.of(3)));
+    }
+
+    @Test
+    @DisplayName("Batches fill heap and direct long buffers")
+    void batchLongBuffer() {
+        var generator = UUIDGenerator.builder().clock(new FakeClock()).machineAddress(42L).build();
+        var heap = LongBuffer.allocate(8);
+        heap.position(2);
+        generator.generate(heap, 2);
+        assertThat(heap.position(), is(6));
+        var direct = ByteBuffer.allocateDirect(32).asLongBuffer();
+        generator.generate(direct, 2);
+        assertThat(direct.position(), is(4));
+        assertThat(UUIDGenerator.UniqueId.fromBits(direct.get(0), direct.get(1)),
+                is(greaterThan(UUIDGenerator.UniqueId.fromBits(heap.get(4), heap.get(5)))));
+    }
+
+    @Test
+    @DisplayName("Clock regression keeps ids increasing by default")
+    void clockRegressionAdvance() {
+        var time = new AtomicLong(1000);
+        var generator = UUIDGenerator.builder().timeSource(time::get).machineAddress(1L).build();
+        var first = generator.generate();
+        time.set(10);
+        var second = generator.generate();
+        assertThat(second, is(greaterThan(first)));
+        assertThat(second.hundredNanos(), is(1000L));
+        for (int i = 0; i < 1000; i++) {
+            generator.generate();
+        }
+        assertThat(generator.clockRegressions(), is(1L));
+        time.set(2000);
+        generator.generate();
+        time.set(20);
+        generator.generate();
+        generator.generate();
+        assertThat(generator.clockRegressions(), is(2L));
+    }
+
+    @Test
+    @DisplayName("Clock regression fails fast when configured to")
+    void clockRegressionFail() {
+        var time = new AtomicLong(1000);
+        var generator = UUIDGenerator.builder().timeSource(time::get).machineAddress(1L)
+                .clockRegressionPolicy(UUIDGenerator.ClockRegressionPolicy.FAIL).build();
+        generator.generate();
+        time.set(10);
+        assertThrows(IllegalStateException.class, generator::generate);
+        assertThrows(IllegalStateException.class, generator::generate);
+        time.set(1001);
+        assertThat(generator.generate().hundredNanos(), is(1001L));
+        assertThat(generator.clockRegressions(), is(1L));
+    }
+
+    @Test
+    @DisplayName("Clock regression waits for the clock to catch up when configured to")
+    void clockRegressionWait() {
+        var time = new AtomicLong(1000);
+        // Steps back to 10, then advances by 100 per read until it passes the last reading.
+        var generator = UUIDGenerator.builder().timeSource(() -> time.get() < 1000 ? time.getAndAdd(100) : time.get())
+                .machineAddress(1L).clockRegressionPolicy(UUIDGenerator.ClockRegressionPolicy.WAIT).build();
+        generator.generate();
+        time.set(10);
+        var second = generator.generate();
+        assertThat(second.hundredNanos(), is(greaterThanOrEqualTo(1000L)));
+        assertThat(generator.clockRegressions(), is(1L));
+        assertThat(generator.clockRegressionStallNanos(), is(greaterThan(0L)));
+    }
+
+    @Test
+    @DisplayName("Sequence width is configurable and exhausting it borrows the next tick")
+    void sequenceBitsBorrow() {
+        var generator = UUIDGenerator.builder().timeSource(() -> 1000L).machineAddress(1L).sequenceBits(2).build();
+        for (int i = 0; i < 4; i++) {
+            var id = generator.generate();
+            assertThat(id.hundredNanos(), is(1000L));
+            assertThat(id.sequenceNumber(), is(i));
+        }
+        assertThat(generator.borrowedTicks(), is(0L));
+        var borrowed = generator.generate();
+        assertThat(borrowed.hundredNanos(), is(1001L));
+        assertThat(borrowed.sequenceNumber(), is(0));
+        assertThat(generator.borrowedTicks(), is(1L));
+        generator.generate(new long[2 * 8], 0, 8);
+        assertThat(generator.borrowedTicks(), is(3L));
+    }
+
+    @Test
+    @DisplayName("Sequence overflow waits for the clock when configured to")
+    void sequenceOverflowWait() {
+        var time = new AtomicLong(1000);
+        // Advances by one tick every 100 reads.
+        var reads = new AtomicLong();
+        var generator = UUIDGenerator.builder().timeSource(() -> time.get() + reads.incrementAndGet() / 100)
+                .machineAddress(1L).sequenceBits(1)
+                .sequenceOverflowPolicy(UUIDGenerator.SequenceOverflowPolicy.WAIT).build();
+        for (int i = 0; i < 10; i++) {
+            var id = generator.generate();
+            assertThat(id.hundredNanos(), is(lessThanOrEqualTo(time.get() + reads.get() / 100)));
+        }
+        assertThat(generator.borrowedTicks(), is(greaterThan(0L)));
+    }
+
+    @Test
+    @DisplayName("Sequence and stripe widths must fit the packed encoding")
+    void sequenceBitsBounds() {
+        assertThrows(IllegalArgumentException.class, () -> UUIDGenerator.builder().sequenceBits(0).build());
+        assertThrows(IllegalArgumentException.class, () -> UUIDGenerator.builder().sequenceBits(13).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> UUIDGenerator.builder().sequenceBits(12).stripeBits(5).build());
+    }
+
+    @Test
+    @DisplayName("Parallel streams produce a reserved, ordered range of ids")
+    void parallelStream() {
+        var listened = new AtomicLong();
+        var generator = UUIDGenerator.builder().listener(i -> listened.incrementAndGet()).build();
+        var before = generator.generate();
+        var ids = generator.stream(100000).parallel().toList();
+        var after = generator.generate();
+        assertThat(ids.size(), is(100000));
+        assertThat(ids.get(0), is(greaterThan(before)));
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i), is(greaterThan(ids.get(i - 1))));
+        }
+        assertThat(after, is(greaterThan(ids.get(ids.size() - 1))));
+        assertThat(listened.get(), is(100002L));
+        assertThat(generator.stream(10).sorted().distinct().count(), is(10L));
+        assertThat(generator.stream(0).count(), is(0L));
+        assertThrows(IllegalArgumentException.class, () -> generator.stream(-1));
+    }
+
+    @Test
+    @DisplayName("Reservations carrying too far ahead of the clock are rejected without claiming ids")
+    void reservationHorizon() {
+        var generator = UUIDGenerator.builder().timeSource(() -> 1000L).machineAddress(1L).build();
+        var limit = UUIDGenerator.MAX_RESERVATION_AHEAD << UUIDGenerator.DEFAULT_SEQUENCE_BITS;
+        var first = generator.generate();
+        assertThrows(IllegalArgumentException.class, () -> generator.stream(Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> generator.stream(limit + 1));
+        var second = generator.generate();
+        assertThat(second, is(new UUIDGenerator.UniqueId(1000, 1, 1)));
+        assertThat(generator.stream(limit).findFirst().orElseThrow(), is(greaterThan(second)));
+        var after = generator.generate();
+        assertThat(after, is(new UUIDGenerator.UniqueId(1000 + UUIDGenerator.MAX_RESERVATION_AHEAD, 1, 2)));
+        assertThat(after, is(greaterThan(first)));
+    }
+
     @Test
     @DisplayName("String representation of unique ID is dashes separating integers")
     void testToString() {
         assertThat(new UUIDGenerator.UniqueId(1, 2, 3).toString(), is("1-2-3"));
     }
 
+    /**
+     * Calls the supplier perThread times on each of threads threads at once, and asserts that no two calls returned
+     * the same id.
+     */
+    static void assertUniqueAcrossThreads(Supplier<UUIDGenerator.UniqueId> supplier, int threads, int perThread)
+            throws Exception {
+        var ids = ConcurrentHashMap.<UUIDGenerator.UniqueId>newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    var local = new HashSet<UUIDGenerator.UniqueId>();
+                    for (int i = 0; i < perThread; i++) {
+                        local.add(supplier.get());
+                    }
+                    ids.addAll(local);
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(ids.size(), is(threads * perThread));
+    }
+
     static class FakeClock extends Clock {
         int hundredMillis = 1;
 
@@ -0,0 +1,73 @@
+package org.example;
+
+import org.example.UUIDGenerator.UniqueId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UuidLayoutTest {
+
+    private static final UniqueId ID = new UniqueId(16_000_000_000_000_123L, 0x0123456789ABL, 42);
+
+    @Test
+    @DisplayName("Version 1 fields agree with java.util.UUID")
+    void v1Fields() {
+        var uuid = ID.toUuid(UuidLayout.V1);
+        assertThat(uuid.version(), is(1));
+        assertThat(uuid.variant(), is(2));
+        assertThat(uuid.timestamp(), is(ID.hundredNanos() + UuidLayout.GREGORIAN_OFFSET));
+        assertThat(uuid.clockSequence(), is(42));
+        assertThat(uuid.node(), is(0x0123456789ABL));
+    }
+
+    @Test
+    @DisplayName("Version 1, 6 and 7 UUIDs round-trip")
+    void roundTrip() {
+        var negativeMachine = new UniqueId(16_000_000_000_000_123L, -7, 4095);
+        for (var layout : UuidLayout.values()) {
+            var uuid = ID.toUuid(layout);
+            assertThat(uuid.version(), is(layout.version));
+            assertThat(UniqueId.fromUuid(uuid), is(ID));
+            assertThat(UniqueId.fromUuid(UUID.fromString(uuid.toString())), is(ID));
+            assertThat(UniqueId.fromUuid(negativeMachine.toUuid(layout)), is(negativeMachine));
+        }
+    }
+
+    @Test
+    @DisplayName("Version 7 stores Unix milliseconds in the top 48 bits")
+    void v7Millis() {
+        assertThat(ID.toUuid(UuidLayout.V7).getMostSignificantBits() >>> 16, is(ID.hundredNanos() / 10000));
+    }
+
+    @Test
+    @DisplayName("Version 6 and 7 UUIDs sort by time")
+    void timeOrdered() {
+        var later = new UniqueId(ID.hundredNanos() + 1, 0, 0);
+        for (var layout : new UuidLayout[]{UuidLayout.V6, UuidLayout.V7}) {
+            assertThat(compareBytes(ID.toUuid(layout), later.toUuid(layout)), lessThan(0));
+        }
+    }
+
+    private static int compareBytes(UUID a, UUID b) {
+        var high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    @Test
+    @DisplayName("Ids which do not fit a layout are rejected")
+    void unrepresentable() {
+        assertThrows(IllegalArgumentException.class, () -> new UniqueId(1, 1, 1 << 14).toUuid(UuidLayout.V1));
+        assertThrows(IllegalArgumentException.class, () -> new UniqueId(1, 1, 1 << 12).toUuid(UuidLayout.V7));
+        assertThrows(IllegalArgumentException.class, () -> new UniqueId(1, 1L << 48, 0).toUuid(UuidLayout.V6));
+        assertThrows(IllegalArgumentException.class, () -> new UniqueId(-1, 1, 0).toUuid(UuidLayout.V7));
+        assertThrows(IllegalArgumentException.class, () -> UniqueId.fromUuid(UUID.randomUUID()));
+        assertThrows(IllegalArgumentException.class,
+                () -> UuidLayout.V6.fromUuid(ID.toUuid(UuidLayout.V1)));
+    }
+}